@@ -0,0 +1,150 @@
+package com.winwin.orbital.benchmark;
+
+import com.winwin.orbital.club.Club;
+import com.winwin.orbital.league.League;
+import com.winwin.orbital.manager.Manager;
+import com.winwin.orbital.player.Player;
+import com.winwin.orbital.playerperformance.PlayerPerformance;
+import com.winwin.orbital.scoringrule.ScoringRule;
+import com.winwin.orbital.team.Team;
+import com.winwin.orbital.user.User;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * In-memory leagues, squads and performances for benchmarks. Nothing here touches a database; entities
+ * are plain objects with ids assigned by hand.
+ */
+public final class SyntheticData {
+
+    public static final String SEASON = "24/25";
+
+    private SyntheticData() {
+    }
+
+    public static List<Club> clubs(int count) {
+        List<Club> clubs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Club club = new Club();
+            club.setId(i + 1);
+            club.setName("Club " + (i + 1));
+            club.setShortName("C" + (i + 1));
+            club.setAvailable(true);
+            clubs.add(club);
+        }
+        return clubs;
+    }
+
+    /**
+     * Creates {@code count} players spread round-robin over the clubs, with positions in the ratio of a real
+     * squad (2 goalkeepers, 5 defenders, 5 midfielders and 3 forwards per 15 players).
+     */
+    public static List<Player> players(int count, List<Club> clubs) {
+        String[] squadPositions = {
+                "goalkeeper", "goalkeeper",
+                "defender", "defender", "defender", "defender", "defender",
+                "midfielder", "midfielder", "midfielder", "midfielder", "midfielder",
+                "forward", "forward", "forward"
+        };
+        List<Player> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Positions loaded through JDBC are not interned
+            Player player = new Player("First" + i, "Last" + i, new String(squadPositions[i % squadPositions.length]));
+            player.setId(i + 1);
+            player.setAvailable(true);
+            player.setClub(clubs.get(i % clubs.size()));
+            players.add(player);
+        }
+        return players;
+    }
+
+    public static League league(int teamCount) {
+        League league = new League("Benchmark League", "BENCHMRK");
+        league.setId(1);
+        league.setStatus("in season");
+        league.setMaxNumberOfPlayersFromAClub(3);
+        league.setDraftTurnDurationMilliseconds(3_600_000);
+        league.setPowerUps(new HashMap<>(Map.of("bboost", 1, "cx3", 2)));
+        league.setScoringRule(scoringRule(league));
+
+        for (int i = 0; i < teamCount; i++) {
+            User user = new User();
+            user.setId(i + 1);
+            user.setUsername("manager" + (i + 1));
+            user.setRole("USER");
+
+            Manager manager = new Manager();
+            manager.setId(i + 1);
+            manager.setUser(user);
+            user.setManager(manager);
+
+            Team team = new Team(manager, league);
+            team.setId(i + 1);
+            manager.getTeams().add(team);
+            league.getTeams().add(team);
+        }
+        return league;
+    }
+
+    public static ScoringRule scoringRule(League league) {
+        ScoringRule scoringRule = new ScoringRule();
+        scoringRule.setLeague(league);
+        scoringRule.setFor60Mins(1);
+        scoringRule.setForOver60Mins(2);
+        scoringRule.setForGkDfGoal(6);
+        scoringRule.setForMdGoal(5);
+        scoringRule.setForFwGoal(4);
+        scoringRule.setForAssist(3);
+        scoringRule.setForGkDfCleanSheet(4);
+        scoringRule.setForMdCleanSheet(1);
+        scoringRule.setFor3GkSaves(1);
+        scoringRule.setForPkSaved(5);
+        scoringRule.setForPkMissed(-2);
+        scoringRule.setFor2GoalsConceded(-1);
+        scoringRule.setForYellowCard(1);
+        scoringRule.setForRedCard(3);
+        scoringRule.setForOwnGoal(2);
+        return scoringRule;
+    }
+
+    public static PlayerPerformance performance(Player player, int gameweek, Random random) {
+        PlayerPerformance performance = new PlayerPerformance();
+        performance.setPlayer(player);
+        performance.setGameweek(gameweek);
+        performance.setSeason(SEASON);
+        // Roughly one in five players sits the gameweek out, which exercises the auto-substitution paths
+        performance.setMinutesPlayed(random.nextInt(5) == 0 ? 0 : 1 + random.nextInt(90));
+        performance.setGoalsScored(random.nextInt(3));
+        performance.setAssists(random.nextInt(3));
+        performance.setCleanSheet(random.nextInt(2));
+        performance.setSaves(random.nextInt(8));
+        performance.setPenaltiesSaved(random.nextInt(2));
+        performance.setPenaltiesMissed(random.nextInt(2));
+        performance.setGoalsConceded(random.nextInt(5));
+        performance.setYellowCards(random.nextInt(2));
+        performance.setRedCards(random.nextInt(10) == 0 ? 1 : 0);
+        performance.setOwnGoals(random.nextInt(10) == 0 ? 1 : 0);
+        return performance;
+    }
+
+    /**
+     * Implements a Spring Data repository interface in memory: every call is answered by {@code handler} with
+     * the method name and arguments. Methods the handler does not know about should return null.
+     */
+    @SuppressWarnings("unchecked")
+    public static <R> R repository(Class<R> repositoryType, BiFunction<String, Object[], Object> handler) {
+        return (R) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            case "equals" -> proxy == args[0];
+                            default -> repositoryType.getSimpleName() + "(in memory)";
+                        };
+                    }
+                    return handler.apply(method.getName(), args == null ? new Object[0] : args);
+                });
+    }
+}
@@ -0,0 +1,147 @@
+package com.winwin.orbital.draft;
+
+import com.winwin.orbital.benchmark.SyntheticData;
+import com.winwin.orbital.league.League;
+import com.winwin.orbital.player.PlayerCatalog;
+import com.winwin.orbital.player.PlayerRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives DraftSession against in-memory repositories and a messaging template whose channel discards
+ * every message, so draft state is still converted to JSON on each pick as it is in production.
+ */
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DraftBenchmark {
+
+    private static final int PICKS_PER_TEAM = 15;
+
+    @State(Scope.Benchmark)
+    public static class DraftFixture {
+
+        @Param({"16"})
+        public int teamCount;
+
+        @Param({"600"})
+        public int poolSize;
+
+        League league;
+        List<PlayerRecord> pool;
+        DraftWebSocketHandler draftWebSocketHandler;
+        DraftSessionManager draftSessionManager;
+        DraftTurnTimer draftTurnTimer;
+        DraftEventLoopGroup draftEventLoopGroup;
+        DraftPickJournal draftPickJournal;
+        DraftFinalizer draftFinalizer;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            league = SyntheticData.league(teamCount);
+            pool = PlayerCatalog.toRecords(SyntheticData.players(poolSize, SyntheticData.clubs(20)));
+
+            SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((message, timeout) -> true);
+            messagingTemplate.setMessageConverter(new MappingJackson2MessageConverter());
+            draftWebSocketHandler = new DraftWebSocketHandler(messagingTemplate, new ObjectMapper());
+            draftSessionManager = new DraftSessionManager(new InMemoryDraftCoordinationStore(), "benchmark");
+            draftSessionManager.joinCluster();
+            draftTurnTimer = new DraftTurnTimer(new SimpleMeterRegistry(), 1);
+            // Draft tasks run on the benchmark thread so each call returns with its work done
+            draftEventLoopGroup = new DraftEventLoopGroup(new SimpleMeterRegistry(), Runnable::run);
+            draftPickJournal = new DraftPickJournal(SyntheticData.repository(DraftPickRepository.class,
+                    (method, args) -> "saveAll".equals(method) ? args[0] : null), new SimpleMeterRegistry(), 100);
+            // Squads are saved on the finalizer's own thread, off the pick path measured here
+            draftFinalizer = new DraftFinalizer(null, null, draftSessionManager, draftWebSocketHandler,
+                    draftPickJournal, new SimpleMeterRegistry(), 1, 0) {
+                @Override
+                public CompletableFuture<Void> submit(long leagueId, Map<Long, List<Long>> squads) {
+                    draftSessionManager.removeDraftSession(leagueId);
+                    return CompletableFuture.completedFuture(null);
+                }
+            };
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws InterruptedException {
+            draftTurnTimer.shutdown();
+            draftFinalizer.shutdown();
+        }
+
+        DraftSession newSession() {
+            DraftSession draftSession = new DraftSession(league, pool, null, draftWebSocketHandler,
+                    draftSessionManager, draftTurnTimer, draftEventLoopGroup, draftPickJournal, draftFinalizer);
+            draftSessionManager.addDraftSession(draftSession);
+            return draftSession;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class MidDraft {
+
+        DraftSession draftSession;
+
+        @Setup(Level.Trial)
+        public void setup(DraftFixture fixture) {
+            draftSession = fixture.newSession();
+            draftSession.startDraft();
+            int picks = fixture.teamCount * PICKS_PER_TEAM / 2;
+            for (int i = 0; i < picks; i++) {
+                draftSession.autoPickPlayer();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class FreshDraft {
+
+        DraftSession draftSession;
+
+        @Setup(Level.Invocation)
+        public void setup(DraftFixture fixture) {
+            draftSession = fixture.newSession();
+            draftSession.startDraft();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public DraftState getDraftState(MidDraft midDraft) {
+        return midDraft.draftSession.getDraftState();
+    }
+
+    /**
+     * A late joiner asking for the state of a draft that has not moved since the last request.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void sendDraftStateToUser(MidDraft midDraft) {
+        midDraft.draftSession.sendDraftStateToUser("manager1");
+    }
+
+    /**
+     * Auto-picks every slot of a fresh draft, including the state broadcast after each pick and the hand-off
+     * of the finished squads to the finalizer.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 20, batchSize = 1)
+    @Measurement(iterations = 50, batchSize = 1)
+    public boolean autoPickFullDraft(FreshDraft freshDraft, DraftFixture fixture) {
+        DraftSession draftSession = freshDraft.draftSession;
+        for (int i = 0; i < fixture.teamCount * PICKS_PER_TEAM; i++) {
+            draftSession.autoPickPlayer();
+        }
+        return draftSession.isDraftComplete();
+    }
+}
@@ -0,0 +1,108 @@
+package com.winwin.orbital.lineup;
+
+import com.winwin.orbital.benchmark.SyntheticData;
+import com.winwin.orbital.gameweek.GameweekComponent;
+import com.winwin.orbital.league.League;
+import com.winwin.orbital.player.Player;
+import com.winwin.orbital.playerperformance.PlayerPerformance;
+import com.winwin.orbital.playerperformance.PlayerPerformanceService;
+import com.winwin.orbital.powerupusage.PowerupUsageRepository;
+import com.winwin.orbital.powerupusage.PowerupUsageService;
+import com.winwin.orbital.team.Team;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Scores one gameweek of lineups for every team in a synthetic league, using the in-memory overloads of
+ * LineupService that take preloaded performances and substitutes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class LineupBenchmark {
+
+    @Param({"16"})
+    private int teamCount;
+
+    private LineupService lineupService;
+    private List<Lineup> lineups;
+    private Map<Long, PlayerPerformance> performances;
+    private Map<Long, Player> players;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        League league = SyntheticData.league(teamCount);
+        List<Player> allPlayers = SyntheticData.players(teamCount * 15, SyntheticData.clubs(20));
+
+        players = new HashMap<>();
+        performances = new HashMap<>();
+        for (Player player : allPlayers) {
+            players.put(player.getId(), player);
+            performances.put(player.getId(), SyntheticData.performance(player, 1, random));
+        }
+
+        lineups = new ArrayList<>();
+        List<Team> teams = new ArrayList<>(league.getTeams());
+        for (int i = 0; i < teams.size(); i++) {
+            lineups.add(lineup(teams.get(i), allPlayers.subList(i * 15, (i + 1) * 15)));
+        }
+
+        // Scoring never reads powerup usage; the service only has to exist
+        PowerupUsageService powerupUsageService = new PowerupUsageService(mock(PowerupUsageRepository.class),
+                mock(LineupRepository.class), mock(GameweekComponent.class), mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), 0);
+        lineupService = new LineupService(null, null, null, null, null, null,
+                new PlayerPerformanceService(), null, null, powerupUsageService);
+    }
+
+    @Benchmark
+    public void calculateFinalLineup(Blackhole blackhole) {
+        for (Lineup lineup : lineups) {
+            blackhole.consume(lineupService.calculateFinalLineup(lineup, performances, players));
+        }
+    }
+
+    @Benchmark
+    public void calculatePointsForPlayers(Blackhole blackhole) {
+        for (Lineup lineup : lineups) {
+            blackhole.consume(lineupService.calculatePointsForPlayers(lineup, performances, players));
+        }
+    }
+
+    /**
+     * Starts 1 goalkeeper, 4 defenders, 4 midfielders and 2 forwards from a 2/5/5/3 squad and benches the rest.
+     */
+    private static Lineup lineup(Team team, List<Player> squad) {
+        Map<String, Integer> starters = Map.of("goalkeeper", 1, "defender", 4, "midfielder", 4, "forward", 2);
+        Map<String, Integer> started = new HashMap<>();
+        Set<Player> startingPlayers = new HashSet<>();
+        Map<Integer, Long> substitutes = new HashMap<>();
+
+        for (Player player : squad) {
+            String position = player.getPosition();
+            if (started.getOrDefault(position, 0) < starters.get(position)) {
+                started.merge(position, 1, Integer::sum);
+                startingPlayers.add(player);
+            } else {
+                substitutes.put(substitutes.size() + 1, player.getId());
+            }
+        }
+
+        List<Player> startingList = new ArrayList<>(startingPlayers);
+        Lineup lineup = new Lineup(1, SyntheticData.SEASON, LocalDateTime.now(), startingPlayers,
+                startingList.get(0), startingList.get(1), substitutes, null, team);
+        lineup.setId(team.getId());
+        return lineup;
+    }
+}
@@ -0,0 +1,162 @@
+package com.winwin.orbital.playerperformance;
+
+import com.winwin.orbital.league.League;
+import com.winwin.orbital.player.Player;
+import com.winwin.orbital.scoringrule.ScoringRule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores one synthetic gameweek of performances for a league, comparing the original
+ * ScoringRule/String based calculation with the compiled coefficient table.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class ScoringBenchmark {
+
+    private static final String[] POSITIONS = {"goalkeeper", "defender", "midfielder", "forward"};
+
+    @Param({"600"})
+    private int performanceCount;
+
+    private League league;
+    private List<PlayerPerformance> performances;
+    private PerformanceStats.Packed packed;
+    private PlayerPerformanceService playerPerformanceService;
+    private int[] points;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+
+        ScoringRule scoringRule = new ScoringRule();
+        scoringRule.setFor60Mins(1);
+        scoringRule.setForOver60Mins(2);
+        scoringRule.setForGkDfGoal(6);
+        scoringRule.setForMdGoal(5);
+        scoringRule.setForFwGoal(4);
+        scoringRule.setForAssist(3);
+        scoringRule.setForGkDfCleanSheet(4);
+        scoringRule.setForMdCleanSheet(1);
+        scoringRule.setFor3GkSaves(1);
+        scoringRule.setForPkSaved(5);
+        scoringRule.setForPkMissed(-2);
+        scoringRule.setFor2GoalsConceded(-1);
+        scoringRule.setForYellowCard(1);
+        scoringRule.setForRedCard(3);
+        scoringRule.setForOwnGoal(2);
+
+        league = new League();
+        league.setId(1);
+        league.setScoringRule(scoringRule);
+        scoringRule.setLeague(league);
+
+        performances = new ArrayList<>(performanceCount);
+        for (int i = 0; i < performanceCount; i++) {
+            // Positions loaded through JDBC are not interned, so String.equals cannot short-circuit on identity
+            Player player = new Player("First" + i, "Last" + i, new String(POSITIONS[i % POSITIONS.length]));
+            player.setId(i + 1);
+
+            PlayerPerformance performance = new PlayerPerformance();
+            performance.setPlayer(player);
+            performance.setGameweek(1);
+            performance.setSeason("24/25");
+            performance.setMinutesPlayed(random.nextInt(91));
+            performance.setGoalsScored(random.nextInt(3));
+            performance.setAssists(random.nextInt(3));
+            performance.setCleanSheet(random.nextInt(2));
+            performance.setSaves(random.nextInt(8));
+            performance.setPenaltiesSaved(random.nextInt(2));
+            performance.setPenaltiesMissed(random.nextInt(2));
+            performance.setGoalsConceded(random.nextInt(5));
+            performance.setYellowCards(random.nextInt(2));
+            performance.setRedCards(random.nextInt(2));
+            performance.setOwnGoals(random.nextInt(2));
+            performances.add(performance);
+        }
+
+        playerPerformanceService = new PlayerPerformanceService();
+        packed = PerformanceStats.pack(performances);
+        points = new int[performanceCount];
+    }
+
+    @Benchmark
+    public void legacyScoring(Blackhole blackhole) {
+        for (PlayerPerformance performance : performances) {
+            blackhole.consume(legacyCalculatePointsInLeague(performance, league));
+        }
+    }
+
+    @Benchmark
+    public void compiledScoringPerPerformance(Blackhole blackhole) {
+        for (PlayerPerformance performance : performances) {
+            blackhole.consume(playerPerformanceService.calculatePointsInLeague(performance, league));
+        }
+    }
+
+    @Benchmark
+    public int[] compiledScoringPacked() {
+        playerPerformanceService.getCompiledScoringRule(league).scoreAll(packed, points);
+        return points;
+    }
+
+    /** The calculation PlayerPerformanceService used before scoring rules were compiled. */
+    private static int legacyCalculatePointsInLeague(PlayerPerformance performance, League league) {
+        ScoringRule scoringRule = league.getScoringRule();
+        int points = 0;
+        String position = performance.getPlayer().getPosition();
+
+        if (performance.getMinutesPlayed() > 0 && performance.getMinutesPlayed() < 60) {
+            points += scoringRule.getFor60Mins();
+        } else if (performance.getMinutesPlayed() >= 60) {
+            points += scoringRule.getForOver60Mins();
+        }
+
+        if (position.equals("goalkeeper") || position.equals("defender")) {
+            points += performance.getGoalsScored() * scoringRule.getForGkDfGoal();
+        } else if (position.equals("midfielder")) {
+            points += performance.getGoalsScored() * scoringRule.getForMdGoal();
+        } else if (position.equals("forward")) {
+            points += performance.getGoalsScored() * scoringRule.getForFwGoal();
+        }
+
+        points += performance.getAssists() * scoringRule.getForAssist();
+
+        if (position.equals("goalkeeper") || position.equals("defender")) {
+            if (performance.getCleanSheet() > 0) {
+                points += scoringRule.getForGkDfCleanSheet();
+            }
+        } else if (position.equals("midfielder")) {
+            if (performance.getCleanSheet() > 0) {
+                points += scoringRule.getForMdCleanSheet();
+            }
+        }
+
+        if (position.equals("goalkeeper")) {
+            points += (performance.getSaves() / 3) * scoringRule.getFor3GkSaves();
+        }
+
+        points += performance.getPenaltiesSaved() * scoringRule.getForPkSaved();
+
+        points += performance.getPenaltiesMissed() * scoringRule.getForPkMissed();
+
+        if (position.equals("goalkeeper") || position.equals("defender")) {
+            points += (performance.getGoalsConceded() / 2) * scoringRule.getFor2GoalsConceded();
+        }
+
+        points -= performance.getYellowCards() * scoringRule.getForYellowCard();
+        points -= performance.getRedCards() * scoringRule.getForRedCard();
+
+        points -= performance.getOwnGoals() * scoringRule.getForOwnGoal();
+
+        return points;
+    }
+}
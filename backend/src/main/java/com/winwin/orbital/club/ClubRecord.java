@@ -0,0 +1,8 @@
+package com.winwin.orbital.club;
+
+public record ClubRecord(long id, String name, String shortName) {
+
+    public static ClubRecord of(Club club) {
+        return new ClubRecord(club.getId(), club.getName(), club.getShortName());
+    }
+}
@@ -0,0 +1,56 @@
+package com.winwin.orbital.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for the STOMP client channels when virtual threads are enabled. Every message gets its own virtual
+ * thread, capped at a per-channel concurrency limit; once the cap is reached the sending thread waits for a slot,
+ * which pushes back on the client instead of queueing without bound.
+ */
+public final class ChannelExecutors {
+
+    private ChannelExecutors() {
+    }
+
+    /**
+     * Creates a virtual-thread executor for {@code channel} that publishes, tagged with the channel name,
+     * websocket.channel.tasks.active, websocket.channel.tasks (submitted), websocket.channel.task.wait (time
+     * spent waiting for a slot) and websocket.channel.task.duration.
+     */
+    public static SimpleAsyncTaskExecutor virtualThreadExecutor(String channel, int concurrencyLimit,
+                                                                MeterRegistry meterRegistry) {
+        Tags tags = Tags.of("channel", channel);
+        AtomicInteger active = meterRegistry.gauge("websocket.channel.tasks.active", tags, new AtomicInteger());
+        Counter submitted = meterRegistry.counter("websocket.channel.tasks", tags);
+        Timer wait = meterRegistry.timer("websocket.channel.task.wait", tags);
+        Timer duration = meterRegistry.timer("websocket.channel.task.duration", tags);
+
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("ws-" + channel + "-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        // Decoration happens before the executor waits for a free slot, so the wait is measured from here
+        executor.setTaskDecorator(task -> {
+            submitted.increment();
+            long submittedAt = System.nanoTime();
+            return () -> {
+                long startedAt = System.nanoTime();
+                wait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                    duration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            };
+        });
+        return executor;
+    }
+}
@@ -0,0 +1,188 @@
+package com.winwin.orbital.config;
+
+import com.winwin.orbital.draft.DraftWebSocketHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+
+/**
+ * Outbound buffer for one WebSocket session that keeps a slow client from holding up anyone else. Messages are
+ * queued and written by a flush task on its own thread, so senders never wait on the client's connection.
+ * <p>
+ * Draft frames are tagged by {@link DraftWebSocketHandler}. A new draft snapshot replaces every draft frame of
+ * the same league still waiting in the buffer, since the snapshot already covers them. When the buffer grows
+ * past its size limit, the oldest draft events are dropped; the client notices the sequence gap and asks for a
+ * snapshot. If that is not enough, or a single write takes longer than the send time limit, the session is
+ * closed the same way Spring's own session decorator does it.
+ */
+public class CoalescingWebSocketSession extends WebSocketSessionDecorator {
+
+    private final int sendTimeLimit;
+    private final int bufferSizeLimit;
+    private final Executor flushExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Deque<Frame> buffer = new ArrayDeque<>();
+    private int bufferSize;
+    private boolean flushing;
+    private volatile long sendStartTime;
+    private volatile boolean limitExceeded;
+
+    public CoalescingWebSocketSession(WebSocketSession delegate, int sendTimeLimit, int bufferSizeLimit,
+                                      Executor flushExecutor, MeterRegistry meterRegistry) {
+        super(delegate);
+        this.sendTimeLimit = sendTimeLimit;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.flushExecutor = flushExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public int getBufferSize() {
+        synchronized (buffer) {
+            return bufferSize;
+        }
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (limitExceeded) {
+            return;
+        }
+
+        Frame frame = Frame.of(message);
+        boolean startFlush;
+        boolean overflow;
+        synchronized (buffer) {
+            if (frame.snapshot()) {
+                removeDraftFrames(frame.leagueId(), "coalesced", false);
+            }
+            buffer.addLast(frame);
+            bufferSize += frame.size();
+            if (bufferSize > bufferSizeLimit) {
+                removeDraftFrames(null, "dropped", true);
+            }
+            overflow = bufferSize > bufferSizeLimit;
+            startFlush = !flushing;
+            flushing = true;
+        }
+
+        if (overflow) {
+            sessionLimitExceeded("Buffer size " + getBufferSize() + " bytes for session '" + getId() + "' exceeds the allowed limit " + bufferSizeLimit);
+        }
+        long startTime = sendStartTime;
+        if (startTime > 0 && System.currentTimeMillis() - startTime > sendTimeLimit) {
+            sessionLimitExceeded("Send time " + (System.currentTimeMillis() - startTime) + " ms for session '" + getId() + "' exceeds the allowed limit " + sendTimeLimit);
+        }
+        if (startFlush) {
+            flushExecutor.execute(this::flush);
+        }
+    }
+
+    private void flush() {
+        while (true) {
+            Frame frame;
+            synchronized (buffer) {
+                frame = buffer.pollFirst();
+                if (frame == null || limitExceeded) {
+                    flushing = false;
+                    return;
+                }
+                bufferSize -= frame.size();
+            }
+
+            sendStartTime = System.currentTimeMillis();
+            try {
+                getDelegate().sendMessage(frame.message());
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Failed to send WebSocket message to " + describe(frame) + ", closing it: " + e);
+                closeQuietly(frame);
+            } finally {
+                sendStartTime = 0;
+            }
+        }
+    }
+
+    /**
+     * Removes buffered draft frames of {@code leagueId}, or of any league when it is null. While shedding
+     * load only events are removed, oldest first, and only until the buffer is back under its limit, so a
+     * snapshot the client asked for is never lost.
+     */
+    private void removeDraftFrames(Long leagueId, String outcome, boolean eventsOnly) {
+        Iterator<Frame> frames = buffer.iterator();
+        while (frames.hasNext() && !(eventsOnly && bufferSize <= bufferSizeLimit)) {
+            Frame frame = frames.next();
+            if (frame.leagueId() == null || (leagueId != null && !leagueId.equals(frame.leagueId()))
+                    || (eventsOnly && frame.snapshot())) {
+                continue;
+            }
+            frames.remove();
+            bufferSize -= frame.size();
+            meterRegistry.counter("websocket.draft.frames." + outcome, "league", String.valueOf(frame.leagueId())).increment();
+        }
+    }
+
+    private void sessionLimitExceeded(String reason) {
+        limitExceeded = true;
+        synchronized (buffer) {
+            buffer.clear();
+            bufferSize = 0;
+        }
+        meterRegistry.counter("websocket.sessions.limit-exceeded").increment();
+        throw new SessionLimitExceededException(reason, CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    private void closeQuietly(Frame frame) {
+        limitExceeded = true;
+        try {
+            getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            System.out.println("Failed to close WebSocket " + describe(frame) + ": " + e);
+        }
+    }
+
+    private String describe(Frame frame) {
+        String description = "session '" + getId() + "'";
+        return frame.leagueId() != null ? description + " in league ID " + frame.leagueId() : description;
+    }
+
+    /**
+     * A queued message and, for STOMP MESSAGE frames tagged as draft frames, the league and kind it carries.
+     */
+    record Frame(WebSocketMessage<?> message, int size, Long leagueId, boolean snapshot) {
+
+        private static final String MESSAGE_COMMAND = "MESSAGE\n";
+
+        static Frame of(WebSocketMessage<?> message) {
+            int size = message.getPayloadLength();
+            if (!(message instanceof TextMessage textMessage) || !textMessage.getPayload().startsWith(MESSAGE_COMMAND)) {
+                return new Frame(message, size, null, false);
+            }
+
+            String payload = textMessage.getPayload();
+            Long leagueId = null;
+            boolean snapshot = false;
+            int lineStart = MESSAGE_COMMAND.length();
+            int lineEnd;
+            // Only the header block is read; it ends at the first empty line
+            while ((lineEnd = payload.indexOf('\n', lineStart)) > lineStart) {
+                String line = payload.substring(lineStart, lineEnd);
+                if (line.startsWith(DraftWebSocketHandler.LEAGUE_HEADER + ":")) {
+                    leagueId = Long.valueOf(line.substring(DraftWebSocketHandler.LEAGUE_HEADER.length() + 1));
+                } else if (line.equals(DraftWebSocketHandler.FRAME_HEADER + ":" + DraftWebSocketHandler.SNAPSHOT_FRAME)) {
+                    snapshot = true;
+                }
+                lineStart = lineEnd + 1;
+            }
+            return new Frame(message, size, leagueId, snapshot && leagueId != null);
+        }
+    }
+}
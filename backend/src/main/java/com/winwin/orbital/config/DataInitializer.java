@@ -2,6 +2,8 @@ package com.winwin.orbital.config;
 
 import com.winwin.orbital.club.Club;
 import com.winwin.orbital.club.ClubRepository;
+import com.winwin.orbital.gameweek.GameweekSchedule;
+import com.winwin.orbital.gameweek.GameweekScheduleRepository;
 import com.winwin.orbital.league.League;
 import com.winwin.orbital.league.LeagueRepository;
 import com.winwin.orbital.lineup.Lineup;
@@ -9,6 +11,7 @@ import com.winwin.orbital.lineup.LineupRepository;
 import com.winwin.orbital.manager.Manager;
 import com.winwin.orbital.manager.ManagerRepository;
 import com.winwin.orbital.player.Player;
+import com.winwin.orbital.player.PlayerCatalog;
 import com.winwin.orbital.player.PlayerRepository;
 import com.winwin.orbital.playerperformance.PlayerPerformance;
 import com.winwin.orbital.playerperformance.PlayerPerformanceRepository;
@@ -57,6 +60,12 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private PlayerPerformanceRepository playerPerformanceRepository;
 
+    @Autowired
+    private GameweekScheduleRepository gameweekScheduleRepository;
+
+    @Autowired
+    private PlayerCatalog playerCatalog;
+
     @Autowired
     private BCryptPasswordEncoder passwordEncoder;
 
@@ -401,6 +410,17 @@ public class DataInitializer implements CommandLineRunner {
 
         lineupRepository.saveAll(lineups);
         teamRepository.saveAll(teams);
+
+        // Create the gameweek schedule: gameweeks 1 to 4 are over and gameweek 5 is current
+        LocalDateTime currentGameweekEnd = LocalDateTime.now().plusDays(3);
+        List<GameweekSchedule> schedule = new ArrayList<>();
+        for (int gameweek = 1; gameweek <= 38; gameweek++) {
+            schedule.add(new GameweekSchedule("24/25", gameweek, currentGameweekEnd.plusWeeks(gameweek - 5)));
+        }
+        gameweekScheduleRepository.saveAll(schedule);
+
+        // The players and clubs above were written straight to the repositories
+        playerCatalog.invalidate();
     }
 
     public void initializeClubsAndPlayers() {
@@ -0,0 +1,241 @@
+package com.winwin.orbital.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.messaging.tcp.ReconnectStrategy;
+import org.springframework.messaging.tcp.TcpConnection;
+import org.springframework.messaging.tcp.TcpConnectionHandler;
+import org.springframework.messaging.tcp.TcpOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process STOMP broker that the broker relay talks to in place of a TCP connection, used for
+ * {@code websocket.broker.mode=embedded}. It exercises the same relay path as an external broker without any
+ * network: the relay opens one connection per client session plus its system session, and topic messages sent
+ * on any connection are fanned out to every matching subscription.
+ * <p>
+ * Each subscription may have at most {@code subscriptionBufferSize} messages waiting for delivery; past that
+ * new messages for it are dropped and counted, so one slow subscriber cannot grow the broker's memory.
+ */
+@Component
+@ConditionalOnProperty(name = "websocket.broker.mode", havingValue = "embedded")
+public class EmbeddedStompBroker implements TcpOperations<byte[]> {
+
+    private static final byte[] EMPTY_PAYLOAD = new byte[0];
+
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final ExecutorService deliveryExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stomp-embedded-", 1).factory());
+    private final AtomicLong messageIds = new AtomicLong();
+    private final int subscriptionBufferSize;
+    private final Counter delivered;
+    private final Counter dropped;
+
+    @Autowired
+    public EmbeddedStompBroker(MeterRegistry meterRegistry,
+                               @Value("${websocket.broker.embedded.subscription-buffer-size:1000}") int subscriptionBufferSize) {
+        this.subscriptionBufferSize = subscriptionBufferSize;
+        this.delivered = meterRegistry.counter("stomp.embedded.messages.delivered");
+        this.dropped = meterRegistry.counter("stomp.embedded.messages.dropped");
+        meterRegistry.gauge("stomp.embedded.connections", connections, Set::size);
+    }
+
+    @Override
+    public CompletableFuture<Void> connectAsync(TcpConnectionHandler<byte[]> connectionHandler) {
+        Connection connection = new Connection(connectionHandler);
+        connections.add(connection);
+        connectionHandler.afterConnected(connection);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> connectAsync(TcpConnectionHandler<byte[]> connectionHandler,
+                                                ReconnectStrategy reconnectStrategy) {
+        return connectAsync(connectionHandler);
+    }
+
+    @Override
+    @PreDestroy
+    public CompletableFuture<Void> shutdownAsync() {
+        List.copyOf(connections).forEach(Connection::close);
+        deliveryExecutor.shutdown();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void publish(StompHeaderAccessor send, byte[] payload) {
+        Set<Subscription> subscribers = subscriptions.get(send.getDestination());
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscription subscription : subscribers) {
+            if (subscription.pending.incrementAndGet() > subscriptionBufferSize) {
+                subscription.pending.decrementAndGet();
+                dropped.increment();
+                continue;
+            }
+            subscription.connection.deliver(message(send, payload, subscription), subscription);
+        }
+    }
+
+    private Message<byte[]> message(StompHeaderAccessor send, byte[] payload, Subscription subscription) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        send.toNativeHeaderMap().forEach((name, values) -> {
+            if (!name.equals(StompHeaderAccessor.STOMP_RECEIPT_HEADER)) {
+                values.forEach(value -> accessor.addNativeHeader(name, value));
+            }
+        });
+        accessor.setDestination(send.getDestination());
+        accessor.setSubscriptionId(subscription.id);
+        accessor.setMessageId(String.valueOf(messageIds.incrementAndGet()));
+        if (send.getContentType() != null) {
+            accessor.setContentType(send.getContentType());
+        }
+        return frame(accessor, payload);
+    }
+
+    private static Message<byte[]> frame(StompHeaderAccessor accessor, byte[] payload) {
+        // The relay stamps the client's session id onto every frame it receives, so leave the headers mutable
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    private record Subscription(String id, String destination, Connection connection, AtomicInteger pending) {
+    }
+
+    /**
+     * One relay connection. Frames back to the relay are queued and handed over one at a time on a virtual
+     * thread, so the relay never sees a reply inside its own send call and frames arrive in order.
+     */
+    private class Connection implements TcpConnection<byte[]> {
+
+        private final TcpConnectionHandler<byte[]> handler;
+        private final Map<String, Subscription> subscriptionsById = new ConcurrentHashMap<>();
+        private final Queue<Delivery> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Connection(TcpConnectionHandler<byte[]> handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public CompletableFuture<Void> sendAsync(Message<byte[]> message) {
+            StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+            if (accessor == null) {
+                accessor = StompHeaderAccessor.wrap(message);
+            }
+            StompCommand command = accessor.getCommand();
+            if (command == null || closed.get()) {
+                // Heartbeats carry no command, and the broker does not negotiate any
+                return CompletableFuture.completedFuture(null);
+            }
+
+            switch (command) {
+                case CONNECT, STOMP -> {
+                    StompHeaderAccessor connected = StompHeaderAccessor.create(StompCommand.CONNECTED);
+                    connected.setVersion("1.2");
+                    connected.setHeartbeat(0, 0);
+                    deliver(frame(connected, EMPTY_PAYLOAD), null);
+                }
+                case SUBSCRIBE -> {
+                    Subscription subscription = new Subscription(accessor.getSubscriptionId(),
+                            accessor.getDestination(), this, new AtomicInteger());
+                    subscriptionsById.put(subscription.id(), subscription);
+                    subscriptions.computeIfAbsent(subscription.destination(), destination -> ConcurrentHashMap.newKeySet())
+                            .add(subscription);
+                }
+                case UNSUBSCRIBE -> unsubscribe(subscriptionsById.remove(accessor.getSubscriptionId()));
+                case SEND -> publish(accessor, message.getPayload());
+                case DISCONNECT -> close();
+                default -> {
+                }
+            }
+
+            if (accessor.getReceipt() != null && command != StompCommand.DISCONNECT) {
+                StompHeaderAccessor receipt = StompHeaderAccessor.create(StompCommand.RECEIPT);
+                receipt.setReceiptId(accessor.getReceipt());
+                deliver(frame(receipt, EMPTY_PAYLOAD), null);
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+
+        private void deliver(Message<byte[]> message, Subscription subscription) {
+            outbox.add(new Delivery(message, subscription));
+            if (draining.compareAndSet(false, true)) {
+                deliveryExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            Delivery delivery;
+            while ((delivery = outbox.poll()) != null) {
+                if (delivery.subscription() != null) {
+                    delivery.subscription().pending().decrementAndGet();
+                    delivered.increment();
+                }
+                if (!closed.get()) {
+                    handler.handleMessage(delivery.message());
+                }
+            }
+            draining.set(false);
+            if (!outbox.isEmpty() && draining.compareAndSet(false, true)) {
+                deliveryExecutor.execute(this::drain);
+            }
+        }
+
+        private void unsubscribe(Subscription subscription) {
+            if (subscription == null) {
+                return;
+            }
+            subscriptions.computeIfPresent(subscription.destination(), (destination, subscribers) -> {
+                subscribers.remove(subscription);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+
+        @Override
+        public void onReadInactivity(Runnable runnable, long duration) {
+        }
+
+        @Override
+        public void onWriteInactivity(Runnable runnable, long duration) {
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscriptionsById.values().forEach(this::unsubscribe);
+            subscriptionsById.clear();
+            connections.remove(this);
+            handler.afterConnectionClosed();
+        }
+    }
+
+    private record Delivery(Message<byte[]> message, Subscription subscription) {
+    }
+}
@@ -1,8 +1,10 @@
 package com.winwin.orbital.config;
 
-import com.winwin.orbital.jwt.JwtUtils;
-import com.winwin.orbital.userdetails.UserDetailsServiceImpl;
+import com.winwin.orbital.jwt.JwtAuthenticationCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
@@ -12,16 +14,25 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 @EnableWebSocketMessageBroker
@@ -31,8 +42,30 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Value("${frontend.url}")
     private String frontendUrl;
-    private final JwtUtils jwtUtils;
-    private final UserDetailsServiceImpl userDetailsService;
+    @Value("${websocket.broker.mode:simple}")
+    private String brokerMode;
+    @Value("${websocket.broker.relay.host:localhost}")
+    private String relayHost;
+    @Value("${websocket.broker.relay.port:61613}")
+    private int relayPort;
+    @Value("${websocket.broker.relay.login:guest}")
+    private String relayLogin;
+    @Value("${websocket.broker.relay.passcode:guest}")
+    private String relayPasscode;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    @Value("${websocket.inbound.max-concurrency:1000}")
+    private int inboundMaxConcurrency;
+    @Value("${websocket.outbound.max-concurrency:1000}")
+    private int outboundMaxConcurrency;
+    @Value("${websocket.transport.send-time-limit-ms:10000}")
+    private int sendTimeLimit;
+    @Value("${websocket.transport.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+    private volatile ExecutorService sendExecutor;
+    private final JwtAuthenticationCache jwtAuthenticationCache;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<EmbeddedStompBroker> embeddedStompBroker;
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
@@ -42,13 +75,92 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic");
+        switch (brokerMode) {
+            case "simple" -> registry.enableSimpleBroker("/topic");
+            case "relay" -> enableBrokerRelay(registry);
+            case "embedded" -> enableBrokerRelay(registry).setTcpClient(embeddedStompBroker.getObject());
+            default -> throw new IllegalStateException("Unknown websocket.broker.mode: " + brokerMode);
+        }
         registry.setApplicationDestinationPrefixes("/app");
         registry.setUserDestinationPrefix("/user");
+        // Draft events are sequenced; keep them in order per client when the outbound channel runs in parallel
+        registry.setPreservePublishOrder(true);
+    }
+
+    /**
+     * Relays /topic to a STOMP broker shared by every node. Messages for a user and the registry of connected
+     * users are broadcast through the broker too, so a node can reach a user connected to another node.
+     */
+    private StompBrokerRelayRegistration enableBrokerRelay(MessageBrokerRegistry registry) {
+        return registry.enableStompBrokerRelay("/topic")
+                .setRelayHost(relayHost)
+                .setRelayPort(relayPort)
+                .setClientLogin(relayLogin)
+                .setClientPasscode(relayPasscode)
+                .setSystemLogin(relayLogin)
+                .setSystemPasscode(relayPasscode)
+                .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                .setUserRegistryBroadcast("/topic/simp-user-registry");
+    }
+
+    /**
+     * Each session gets its own send buffer with a size and time limit, so one slow client is cut off instead
+     * of holding up the outbound channel, and stale draft frames are dropped from its buffer first.
+     * <p>
+     * Spring still wraps every session in its own ConcurrentWebSocketSessionDecorator, on top of ours. Its
+     * limits are lifted so that only CoalescingWebSocketSession buffers and enforces the configured ones; since
+     * our sendMessage only queues the frame, Spring's decorator is left doing no more than serialising senders.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(Integer.MAX_VALUE);
+        registration.setSendBufferSizeLimit(Integer.MAX_VALUE);
+        registration.addDecoratorFactory(handler -> new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(@NonNull WebSocketSession session) throws Exception {
+                super.afterConnectionEstablished(new CoalescingWebSocketSession(session, sendTimeLimit,
+                        sendBufferSizeLimit, sendExecutor(), meterRegistry));
+            }
+        });
+    }
+
+    /**
+     * Runs the session flushes, one virtual thread each. Created with the first connection, so a node that
+     * never accepts one starts no executor.
+     */
+    private ExecutorService sendExecutor() {
+        ExecutorService executor = sendExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                if (sendExecutor == null) {
+                    sendExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ws-send-", 1).factory());
+                }
+                executor = sendExecutor;
+            }
+        }
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdownSendExecutor() {
+        ExecutorService executor = sendExecutor;
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(ChannelExecutors.virtualThreadExecutor("outbound", outboundMaxConcurrency, meterRegistry));
+        }
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(ChannelExecutors.virtualThreadExecutor("inbound", inboundMaxConcurrency, meterRegistry));
+        }
         registration.interceptors(new ChannelInterceptor() {
             @Override
             public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
@@ -60,8 +172,10 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                     String authorizationHeader = accessor.getFirstNativeHeader("Authorization");
                     if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
                         String token = authorizationHeader.substring(7);
-                        String username = jwtUtils.getUsernameFromJwtToken(token);
-                        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                        UserDetails userDetails = jwtAuthenticationCache.getUserDetails(token);
+                        if (userDetails == null) {
+                            throw new BadCredentialsException("Invalid JWT token");
+                        }
                         UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                         accessor.setUser(auth);
                         SecurityContextHolder.getContext().setAuthentication(auth);
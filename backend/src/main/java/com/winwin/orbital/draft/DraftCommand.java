@@ -0,0 +1,17 @@
+package com.winwin.orbital.draft;
+
+public record DraftCommand(Type type, long leagueId, long managerId, long playerId, String username) {
+
+    public enum Type {
+        PICK_PLAYER,
+        SEND_DRAFT_STATE
+    }
+
+    public static DraftCommand pickPlayer(long leagueId, long managerId, long playerId) {
+        return new DraftCommand(Type.PICK_PLAYER, leagueId, managerId, playerId, null);
+    }
+
+    public static DraftCommand sendDraftState(long leagueId, String username) {
+        return new DraftCommand(Type.SEND_DRAFT_STATE, leagueId, 0, 0, username);
+    }
+}
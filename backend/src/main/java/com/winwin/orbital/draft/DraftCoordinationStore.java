@@ -0,0 +1,32 @@
+package com.winwin.orbital.draft;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * State shared by every backend node running drafts: cluster membership, which node owns each live draft,
+ * and delivery of draft commands to the owning node.
+ */
+public interface DraftCoordinationStore {
+
+    void joinCluster(String nodeId, Consumer<DraftCommand> commandHandler);
+
+    void leaveCluster(String nodeId);
+
+    Set<String> getNodes();
+
+    /**
+     * Records {@code nodeId} as the owner of the league's draft unless another node already owns it.
+     */
+    boolean claimDraft(long leagueId, String nodeId);
+
+    void releaseDraft(long leagueId, String nodeId);
+
+    Optional<String> getDraftOwner(long leagueId);
+
+    /**
+     * Delivers a command to the handler registered by {@code nodeId}, returning false if that node is gone.
+     */
+    boolean send(String nodeId, DraftCommand command);
+}
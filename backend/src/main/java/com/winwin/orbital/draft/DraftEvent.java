@@ -0,0 +1,33 @@
+package com.winwin.orbital.draft;
+
+import com.winwin.orbital.manager.ManagerDto;
+import com.winwin.orbital.player.PlayerDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * One change to a live draft, broadcast on the league topic. Events are numbered consecutively per draft,
+ * continuing from the sequence of the DraftState snapshot a client starts from; a client that sees a gap
+ * requests a fresh snapshot.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class DraftEvent {
+
+    public enum Type {
+        TURN,
+        PICK
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final ManagerDto pickedBy;
+    private final PlayerDto player;
+    private final ManagerDto currentManager;
+    private final ManagerDto nextManager;
+    private final String lastPickMessage;
+    private final long remainingTime;
+    private final boolean draftComplete;
+}
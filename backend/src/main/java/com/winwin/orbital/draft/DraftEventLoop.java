@@ -0,0 +1,75 @@
+package com.winwin.orbital.draft;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs every task of one draft in submission order, one at a time. Any thread may submit; the queue is drained
+ * by a single task on the shared executor, so draft state is only ever touched by one thread at a time without
+ * taking a lock. A task that throws is counted and logged and the loop moves on to the next one.
+ */
+public class DraftEventLoop implements Executor {
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final Counter failed;
+    private final Gauge queueDepthGauge;
+
+    DraftEventLoop(long leagueId, Executor executor, MeterRegistry meterRegistry, Counter failed) {
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.failed = failed;
+        this.queueDepthGauge = Gauge.builder("draft.event-loop.queue.depth", queueDepth, AtomicInteger::get)
+                .tag("league", String.valueOf(leagueId))
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        queueDepth.incrementAndGet();
+        scheduleDrain();
+    }
+
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public void close() {
+        meterRegistry.remove(queueDepthGauge);
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            queueDepth.decrementAndGet();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                failed.increment();
+                System.out.println("Draft event loop task failed: " + e);
+            }
+        }
+        draining.set(false);
+        // A task submitted after the last poll but before the flag was cleared would otherwise wait for the next submit
+        if (!tasks.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+}
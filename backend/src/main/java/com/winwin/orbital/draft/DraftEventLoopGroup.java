@@ -0,0 +1,45 @@
+package com.winwin.orbital.draft;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hands out a {@link DraftEventLoop} to each live draft. Loops drain on virtual threads, so a draft only holds
+ * a thread while it has work queued, and each loop reports its queue depth tagged with the league id.
+ */
+@Component
+public class DraftEventLoopGroup {
+
+    private final MeterRegistry meterRegistry;
+    private final Executor executor;
+    private final Counter failed;
+
+    @Autowired
+    public DraftEventLoopGroup(MeterRegistry meterRegistry) {
+        this(meterRegistry, Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("draft-event-loop-", 1).factory()));
+    }
+
+    DraftEventLoopGroup(MeterRegistry meterRegistry, Executor executor) {
+        this.meterRegistry = meterRegistry;
+        this.executor = executor;
+        this.failed = meterRegistry.counter("draft.event-loop.tasks.failed");
+    }
+
+    public DraftEventLoop newEventLoop(long leagueId) {
+        return new DraftEventLoop(leagueId, executor, meterRegistry, failed);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+}
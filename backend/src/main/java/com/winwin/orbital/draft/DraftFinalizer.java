@@ -0,0 +1,151 @@
+package com.winwin.orbital.draft;
+
+import com.winwin.orbital.exception.TeamNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves the squads of finished drafts off the pick path. Each league is written in one transaction, with every
+ * squad batch-inserted into team_player, and clients are only told the draft is complete once it has committed.
+ * The pick journal is only cleared after the commit. A failed write is retried with a doubling delay; once the
+ * attempts run out the league is marked "draft failed" and its journal is kept, so the picks can still be
+ * recovered by hand. If even that update fails the league stays in drafting and the next start of the owning
+ * node replays and finalises it again.
+ */
+@Component
+public class DraftFinalizer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DraftSessionManager draftSessionManager;
+    private final DraftWebSocketHandler draftWebSocketHandler;
+    private final DraftPickJournal draftPickJournal;
+    private final ScheduledThreadPoolExecutor executor;
+    private final int maxAttempts;
+    private final long retryDelayMilliseconds;
+    private final Timer duration;
+    private final Counter failed;
+    private final Counter abandoned;
+
+    @Autowired
+    public DraftFinalizer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                          DraftSessionManager draftSessionManager, DraftWebSocketHandler draftWebSocketHandler,
+                          DraftPickJournal draftPickJournal, MeterRegistry meterRegistry,
+                          @Value("${draft.finalisation.max-attempts:5}") int maxAttempts,
+                          @Value("${draft.finalisation.retry-delay-ms:1000}") long retryDelayMilliseconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.draftSessionManager = draftSessionManager;
+        this.draftWebSocketHandler = draftWebSocketHandler;
+        this.draftPickJournal = draftPickJournal;
+        // One thread is plenty: finalisations are rare and each one is a handful of statements
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "draft-finalizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMilliseconds = retryDelayMilliseconds;
+
+        this.duration = meterRegistry.timer("draft.finalisation.duration");
+        this.failed = meterRegistry.counter("draft.finalisations.failed");
+        this.abandoned = meterRegistry.counter("draft.finalisations.abandoned");
+        meterRegistry.gauge("draft.finalisations.pending", executor, e -> e.getQueue().size());
+    }
+
+    /**
+     * Queues a finished draft for saving. {@code squads} maps each manager's id to the ids of the players they picked.
+     * The future completes once the squads are saved, or exceptionally once every attempt has failed.
+     */
+    public CompletableFuture<Void> submit(long leagueId, Map<Long, List<Long>> squads) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        executor.execute(() -> finalizeDraft(leagueId, squads, 1, result));
+        return result;
+    }
+
+    private void finalizeDraft(long leagueId, Map<Long, List<Long>> squads, int attempt, CompletableFuture<Void> result) {
+        try {
+            duration.record(() -> transactionTemplate.executeWithoutResult(status -> saveSquads(leagueId, squads)));
+        } catch (RuntimeException e) {
+            failed.increment();
+            if (executor.isShutdown()) {
+                System.out.println("Failed to save draft for league ID " + leagueId + " during shutdown, it will be finalised again on restart: " + e);
+                result.completeExceptionally(e);
+            } else if (attempt < maxAttempts) {
+                long delay = retryDelayMilliseconds << (attempt - 1);
+                System.out.println("Failed to save draft for league ID " + leagueId + " (attempt " + attempt + " of " + maxAttempts + "), retrying in " + delay + " ms: " + e);
+                executor.schedule(() -> finalizeDraft(leagueId, squads, attempt + 1, result), delay, TimeUnit.MILLISECONDS);
+            } else {
+                abandonDraft(leagueId, e);
+                result.completeExceptionally(e);
+            }
+            return;
+        }
+
+        // Outside the transaction: clearing inside it would drop the pending picks even if the save rolled back
+        draftPickJournal.clear(leagueId);
+        draftSessionManager.removeDraftSession(leagueId);
+        draftWebSocketHandler.sendDraftComplete(leagueId);
+        System.out.println("Draft complete for league ID " + leagueId);
+        result.complete(null);
+    }
+
+    private void abandonDraft(long leagueId, RuntimeException cause) {
+        abandoned.increment();
+        System.out.println("Giving up on saving draft for league ID " + leagueId + " after " + maxAttempts + " attempts, its picks are kept in the journal: " + cause);
+        try {
+            jdbcTemplate.update("UPDATE league SET status = 'draft failed' WHERE id = ? AND status = 'drafting'", leagueId);
+        } catch (RuntimeException e) {
+            System.out.println("Could not mark the draft for league ID " + leagueId + " as failed, it will be finalised again on restart: " + e);
+        }
+        draftSessionManager.removeDraftSession(leagueId);
+    }
+
+    private void saveSquads(long leagueId, Map<Long, List<Long>> squads) {
+        Map<Long, Long> teamIds = new HashMap<>();
+        jdbcTemplate.query("SELECT id, manager_id FROM team WHERE league_id = ?",
+                resultSet -> {
+                    teamIds.put(resultSet.getLong("manager_id"), resultSet.getLong("id"));
+                },
+                leagueId);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<Long, List<Long>> entry : squads.entrySet()) {
+            Long teamId = teamIds.get(entry.getKey());
+            if (teamId == null) {
+                throw new TeamNotFoundException("Team not found for manager ID: " + entry.getKey() + " in league ID " + leagueId);
+            }
+            for (Long playerId : entry.getValue()) {
+                rows.add(new Object[]{teamId, playerId});
+            }
+        }
+
+        jdbcTemplate.update("DELETE FROM team_player WHERE team_id IN (SELECT id FROM team WHERE league_id = ?)", leagueId);
+        jdbcTemplate.batchUpdate("INSERT INTO team_player (team_id, player_id) VALUES (?, ?)", rows);
+        jdbcTemplate.update("UPDATE league SET status = 'in season' WHERE id = ?", leagueId);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Drafts still waiting for a retry keep their journal and league status, so a restart finalises them
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,44 @@
+package com.winwin.orbital.draft;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One pick of a live draft, appended to the draft pick journal so the draft can be rebuilt after a restart.
+ */
+@ToString
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_draft_pick_league_turn", columnList = "leagueId, turn"))
+public class DraftPick {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "draft_pick_seq")
+    @SequenceGenerator(name = "draft_pick_seq", sequenceName = "draft_pick_seq", allocationSize = 50)
+    private long id;
+
+    private long leagueId;
+
+    private int turn;
+
+    private long managerId;
+
+    private long playerId;
+
+    @EqualsAndHashCode.Exclude
+    private LocalDateTime pickedAt;
+
+    public DraftPick(long leagueId, int turn, long managerId, long playerId) {
+        this.leagueId = leagueId;
+        this.turn = turn;
+        this.managerId = managerId;
+        this.playerId = playerId;
+        this.pickedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,92 @@
+package com.winwin.orbital.draft;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Append-only journal of draft picks. Picks are queued in memory by the draft and written behind in batches,
+ * so a pick never waits on the database; a batch that fails to write is kept and retried on the next flush.
+ * Reading a league's picks flushes the queue first.
+ */
+@Component
+public class DraftPickJournal {
+
+    private final DraftPickRepository draftPickRepository;
+    private final int batchSize;
+    private final Deque<DraftPick> pending = new ConcurrentLinkedDeque<>();
+    private final Object flushLock = new Object();
+    private final Counter written;
+    private final Counter failed;
+
+    @Autowired
+    public DraftPickJournal(DraftPickRepository draftPickRepository, MeterRegistry meterRegistry,
+                            @Value("${draft.journal.batch-size:100}") int batchSize) {
+        this.draftPickRepository = draftPickRepository;
+        this.batchSize = batchSize;
+        this.written = meterRegistry.counter("draft.journal.picks.written");
+        this.failed = meterRegistry.counter("draft.journal.flushes.failed");
+        meterRegistry.gauge("draft.journal.picks.pending", pending, Deque::size);
+    }
+
+    public void append(DraftPick draftPick) {
+        pending.addLast(draftPick);
+    }
+
+    public List<DraftPick> load(long leagueId) {
+        flush();
+        return draftPickRepository.findByLeagueIdOrderByTurnAsc(leagueId);
+    }
+
+    public void clear(long leagueId) {
+        synchronized (flushLock) {
+            pending.removeIf(draftPick -> draftPick.getLeagueId() == leagueId);
+            draftPickRepository.deleteByLeagueId(leagueId);
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${draft.journal.flush-interval-ms:500}")
+    public void flush() {
+        synchronized (flushLock) {
+            List<DraftPick> batch = new ArrayList<>(batchSize);
+            DraftPick draftPick;
+            while ((draftPick = pending.pollFirst()) != null) {
+                batch.add(draftPick);
+                if (batch.size() == batchSize) {
+                    if (!write(batch)) {
+                        return;
+                    }
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        }
+    }
+
+    private boolean write(List<DraftPick> batch) {
+        try {
+            draftPickRepository.saveAll(batch);
+            written.increment(batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            failed.increment();
+            System.out.println("Failed to write " + batch.size() + " draft picks, retrying on next flush: " + e);
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                pending.addFirst(batch.get(i));
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.winwin.orbital.draft;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface DraftPickRepository extends JpaRepository<DraftPick, Long> {
+
+    List<DraftPick> findByLeagueIdOrderByTurnAsc(long leagueId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DraftPick p WHERE p.leagueId = :leagueId")
+    void deleteByLeagueId(@Param("leagueId") long leagueId);
+}
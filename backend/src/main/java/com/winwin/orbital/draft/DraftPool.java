@@ -0,0 +1,157 @@
+package com.winwin.orbital.draft;
+
+import com.winwin.orbital.player.PlayerRecord;
+import com.winwin.orbital.player.Position;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/**
+ * The players of one draft, numbered in pool order. Lookups by id, the set of taken players and the
+ * position and club buckets all work on those numbers, so checking or taking a player never scans the pool.
+ * Clubs are numbered too, so squads can count players per club in a plain array.
+ */
+public class DraftPool {
+
+    private final PlayerRecord[] players;
+    private final Map<Long, Integer> indexById;
+    private final int[] positionIndexes;
+    private final int[] clubIndexes;
+    private final int clubCount;
+    private final int[][][] buckets;
+    private final int[][] bucketAvailableCounts;
+    private final BitSet taken;
+    private int availableCount;
+
+    public DraftPool(List<PlayerRecord> players) {
+        this.players = players.toArray(new PlayerRecord[0]);
+        this.indexById = new HashMap<>(players.size() * 2);
+        this.positionIndexes = new int[players.size()];
+        this.clubIndexes = new int[players.size()];
+        this.taken = new BitSet(players.size());
+
+        Map<Long, Integer> clubIndexById = new HashMap<>();
+        for (int i = 0; i < this.players.length; i++) {
+            PlayerRecord player = this.players[i];
+            indexById.put(player.id(), i);
+            clubIndexes[i] = clubIndexById.computeIfAbsent(player.club().id(), id -> clubIndexById.size());
+            Position position = Position.fromName(player.position());
+            positionIndexes[i] = position != null ? position.ordinal() : -1;
+        }
+        this.clubCount = clubIndexById.size();
+
+        // One bucket per position and club, so a squad's open positions and clubs pick out whole buckets
+        this.bucketAvailableCounts = new int[Position.COUNT][clubCount];
+        for (int i = 0; i < this.players.length; i++) {
+            if (positionIndexes[i] >= 0) {
+                bucketAvailableCounts[positionIndexes[i]][clubIndexes[i]]++;
+            }
+        }
+        this.buckets = new int[Position.COUNT][clubCount][];
+        for (int position = 0; position < Position.COUNT; position++) {
+            for (int club = 0; club < clubCount; club++) {
+                buckets[position][club] = new int[bucketAvailableCounts[position][club]];
+                bucketAvailableCounts[position][club] = 0;
+            }
+        }
+        for (int i = 0; i < this.players.length; i++) {
+            int position = positionIndexes[i];
+            if (position >= 0) {
+                int club = clubIndexes[i];
+                buckets[position][club][bucketAvailableCounts[position][club]++] = i;
+            }
+        }
+        this.availableCount = this.players.length;
+    }
+
+    /**
+     * Returns the pool number of a player that has not been taken yet, or -1.
+     */
+    public int indexOfAvailable(long playerId) {
+        Integer index = indexById.get(playerId);
+        return index != null && !taken.get(index) ? index : -1;
+    }
+
+    public PlayerRecord get(int index) {
+        return players[index];
+    }
+
+    /**
+     * Returns the {@link Position} ordinal of a player, or -1 if the position is not recognised.
+     */
+    public int positionIndexOf(int index) {
+        return positionIndexes[index];
+    }
+
+    public int clubIndexOf(int index) {
+        return clubIndexes[index];
+    }
+
+    public int getClubCount() {
+        return clubCount;
+    }
+
+    public int getAvailableCount() {
+        return availableCount;
+    }
+
+    public void take(int index) {
+        if (!taken.get(index)) {
+            taken.set(index);
+            availableCount--;
+            if (positionIndexes[index] >= 0) {
+                bucketAvailableCounts[positionIndexes[index]][clubIndexes[index]]--;
+            }
+        }
+    }
+
+    /**
+     * Returns the available players whose position and club pass the given checks, visiting only the
+     * buckets of open positions and clubs that still have players left.
+     */
+    public int[] findCandidates(IntPredicate isPositionOpen, IntPredicate isClubOpen) {
+        int[] candidates = new int[availableCount];
+        int count = 0;
+        for (int position = 0; position < Position.COUNT; position++) {
+            if (!isPositionOpen.test(position)) {
+                continue;
+            }
+            for (int club = 0; club < clubCount; club++) {
+                if (bucketAvailableCounts[position][club] == 0 || !isClubOpen.test(club)) {
+                    continue;
+                }
+                for (int index : buckets[position][club]) {
+                    if (!taken.get(index)) {
+                        candidates[count++] = index;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    /**
+     * Returns whether {@link #findCandidates} would find anyone, from the bucket counts alone.
+     */
+    public boolean hasCandidates(IntPredicate isPositionOpen, IntPredicate isClubOpen) {
+        for (int position = 0; position < Position.COUNT; position++) {
+            if (!isPositionOpen.test(position)) {
+                continue;
+            }
+            for (int club = 0; club < clubCount; club++) {
+                if (bucketAvailableCounts[position][club] > 0 && isClubOpen.test(club)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public List<PlayerRecord> getAvailablePlayers() {
+        List<PlayerRecord> available = new ArrayList<>(availableCount);
+        for (int i = taken.nextClearBit(0); i < players.length; i = taken.nextClearBit(i + 1)) {
+            available.add(players[i]);
+        }
+        return available;
+    }
+}
@@ -4,12 +4,14 @@ import com.winwin.orbital.exception.LeagueNotFoundException;
 import com.winwin.orbital.exception.UserNotFoundException;
 import com.winwin.orbital.league.League;
 import com.winwin.orbital.league.LeagueRepository;
+import com.winwin.orbital.manager.CurrentManager;
 import com.winwin.orbital.manager.Manager;
 import com.winwin.orbital.manager.ManagerRepository;
-import com.winwin.orbital.player.Player;
-import com.winwin.orbital.player.PlayerRepository;
-import com.winwin.orbital.team.TeamRepository;
+import com.winwin.orbital.player.PlayerCatalog;
+import com.winwin.orbital.player.PlayerRecord;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,20 +25,29 @@ public class DraftService {
 
     private final DraftSessionManager draftSessionManager;
     private final DraftWebSocketHandler draftWebSocketHandler;
+    private final DraftTurnTimer draftTurnTimer;
+    private final DraftEventLoopGroup draftEventLoopGroup;
+    private final DraftPickJournal draftPickJournal;
+    private final DraftFinalizer draftFinalizer;
     private final LeagueRepository leagueRepository;
-    private final PlayerRepository playerRepository;
-    private final TeamRepository teamRepository;
+    private final PlayerCatalog playerCatalog;
     private final ManagerRepository managerRepository;
 
     @Autowired
     public DraftService(DraftSessionManager draftSessionManager, DraftWebSocketHandler draftWebSocketHandler,
-                        LeagueRepository leagueRepository, PlayerRepository playerRepository,
-                        TeamRepository teamRepository, ManagerRepository managerRepository) {
+                        DraftTurnTimer draftTurnTimer, DraftEventLoopGroup draftEventLoopGroup,
+                        DraftPickJournal draftPickJournal,
+                        DraftFinalizer draftFinalizer,
+                        LeagueRepository leagueRepository, PlayerCatalog playerCatalog,
+                        ManagerRepository managerRepository) {
         this.draftSessionManager = draftSessionManager;
         this.draftWebSocketHandler = draftWebSocketHandler;
+        this.draftTurnTimer = draftTurnTimer;
+        this.draftEventLoopGroup = draftEventLoopGroup;
+        this.draftPickJournal = draftPickJournal;
+        this.draftFinalizer = draftFinalizer;
         this.leagueRepository = leagueRepository;
-        this.playerRepository = playerRepository;
-        this.teamRepository = teamRepository;
+        this.playerCatalog = playerCatalog;
         this.managerRepository = managerRepository;
     }
 
@@ -47,46 +58,69 @@ public class DraftService {
 
         List<League> leagues = leagueRepository.findLeaguesWithDraftStarting(currentTime, previousTime);
         for (League league : leagues) {
+            if (!draftSessionManager.isAssignedToThisNode(league.getId())) {
+                continue;
+            }
             startDraft(league);
         }
     }
 
     @Transactional
     public void startDraft(League league) {
-        List<Player> draftPool = playerRepository.findByIsAvailableTrue();
-        DraftSession draftSession = new DraftSession(league,
-                draftPool,
-                this,
-                draftWebSocketHandler,
-                draftSessionManager,
-                leagueRepository,
-                managerRepository,
-                teamRepository);
-        draftSessionManager.addDraftSession(draftSession);
+        DraftSession draftSession = createDraftSession(league);
+        if (!draftSessionManager.addDraftSession(draftSession)) {
+            draftSession.close();
+            System.out.println("Draft for league " + league.getName() + " (ID: " + league.getId() + ") is already running on node " + draftSessionManager.ownerOf(league.getId()));
+            return;
+        }
 
         league.setStatus("drafting");
         leagueRepository.save(league);
 
-        System.out.println("Draft session started for league " + league.getName() + " (ID: " + league.getId() + ")");
+        System.out.println("Draft session started for league " + league.getName() + " (ID: " + league.getId() + ") on node " + draftSessionManager.getNodeId());
         draftSession.startDraft();
     }
 
+    /**
+     * Picks up the drafts this node was running before a restart, replaying each one from the pick journal.
+     */
+    @EventListener(ApplicationReadyEvent.class)
     @Transactional
-    public void pickPlayer(long leagueId, long playerId, UserDetails userDetails) {
-        DraftSession draftSession = draftSessionManager.getDraftSession(leagueId);
-        if (draftSession == null || draftSession.isDraftComplete()) {
-            System.out.println("Invalid draft session for league " + leagueId);
-            return;
+    public void recoverDrafts() {
+        for (League league : leagueRepository.findByStatus("drafting")) {
+            if (!draftSessionManager.isAssignedToThisNode(league.getId())) {
+                continue;
+            }
+            DraftSession draftSession = createDraftSession(league);
+            if (!draftSessionManager.addDraftSession(draftSession)) {
+                draftSession.close();
+                continue;
+            }
+            System.out.println("Recovering draft for league " + league.getName() + " (ID: " + league.getId() + ") on node " + draftSessionManager.getNodeId());
+            draftSession.resumeDraft(draftPickJournal.load(league.getId()));
         }
+    }
 
-        Manager manager = managerRepository.findByUserUsername(userDetails.getUsername())
+    private DraftSession createDraftSession(League league) {
+        List<PlayerRecord> draftPool = playerCatalog.getAvailablePlayers();
+        return new DraftSession(league,
+                draftPool,
+                this,
+                draftWebSocketHandler,
+                draftSessionManager,
+                draftTurnTimer,
+                draftEventLoopGroup,
+                draftPickJournal,
+                draftFinalizer);
+    }
+
+    @Transactional
+    public void pickPlayer(long leagueId, long playerId, UserDetails userDetails) {
+        Manager manager = CurrentManager.find(managerRepository, userDetails)
                 .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
 
-        Player player = playerRepository.findById(playerId).orElse(null);
-        if (player != null) {
-            System.out.println("User " + userDetails.getUsername() + " (Manager ID: " + manager.getId() + ") is picking player ID " + playerId + " for league " + draftSession.getLeague().getName());
-            draftSession.pickPlayer(manager.getId(), player);
-        }
+        System.out.println("User " + userDetails.getUsername() + " (Manager ID: " + manager.getId() + ") is picking player ID " + playerId + " for league " + leagueId);
+        draftSessionManager.pickPlayer(leagueId, manager.getId(), playerId);
     }
 
     public void sendDraftState(long leagueId, UserDetails userDetails) {
@@ -107,13 +141,7 @@ public class DraftService {
             return;
         }
 
-        DraftSession draftSession = draftSessionManager.getDraftSession(leagueId);
-        if (draftSession == null || draftSession.isDraftComplete()) {
-            System.out.println("Invalid draft session for league " + leagueId);
-            return;
-        }
-
-        draftWebSocketHandler.sendDraftStateUpdateToUser(leagueId, draftSession.getDraftState(), username);
+        draftSessionManager.sendDraftState(leagueId, username);
     }
 
 }
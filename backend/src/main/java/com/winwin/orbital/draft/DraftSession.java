@@ -1,167 +1,222 @@
 package com.winwin.orbital.draft;
 
-import com.winwin.orbital.club.Club;
-import com.winwin.orbital.exception.ManagerNotFoundException;
-import com.winwin.orbital.exception.TeamNotFoundException;
 import com.winwin.orbital.league.League;
-import com.winwin.orbital.league.LeagueRepository;
 import com.winwin.orbital.manager.Manager;
 import com.winwin.orbital.manager.ManagerDto;
-import com.winwin.orbital.manager.ManagerRepository;
-import com.winwin.orbital.player.Player;
+import com.winwin.orbital.player.PlayerRecord;
 import com.winwin.orbital.player.PlayerDto;
+import com.winwin.orbital.player.Position;
 import com.winwin.orbital.team.Team;
-import com.winwin.orbital.team.TeamRepository;
 import lombok.Getter;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 
 @Getter
 public class DraftSession {
+    private static final Position[] POSITIONS = Position.values();
+
     private final League league;
     private final List<Manager> managers;
-    private final List<Player> draftPool;
-    private final Map<Long, List<Player>> selectedPlayers;
+    private final DraftPool draftPool;
+    private final Map<Long, List<PlayerRecord>> selectedPlayers;
+    private final Map<Long, SquadCounts> squadCounts;
+    private final Map<Long, ManagerDto> managerDtos;
     private int currentPickIndex;
-    private boolean isDraftComplete;
-    private final Timer timer;
-    private TimerTask currentTask;
+    private volatile boolean isDraftComplete;
+    private int turn;
+    private long sequence;
+    private final DraftTurnTimer turnTimer;
+    private DraftTurnTimer.Deadline currentDeadline;
+    private final DraftEventLoop eventLoop;
+    private final DraftPickJournal draftPickJournal;
+    private final DraftFinalizer draftFinalizer;
     private final DraftService draftService;
     private final DraftWebSocketHandler draftWebSocketHandler;
     private final DraftSessionManager draftSessionManager;
-    private final LeagueRepository leagueRepository;
-    private final ManagerRepository managerRepository;
-    private final TeamRepository teamRepository;
     private final Random random = new Random();
     private String lastPickMessage;
+    private DraftSnapshot snapshot;
 
     public DraftSession(League league,
-                        List<Player> draftPool,
+                        List<PlayerRecord> draftPool,
                         DraftService draftService,
                         DraftWebSocketHandler draftWebSocketHandler,
                         DraftSessionManager draftSessionManager,
-                        LeagueRepository leagueRepository,
-                        ManagerRepository managerRepository,
-                        TeamRepository teamRepository) {
+                        DraftTurnTimer turnTimer,
+                        DraftEventLoopGroup eventLoopGroup,
+                        DraftPickJournal draftPickJournal,
+                        DraftFinalizer draftFinalizer) {
         this.league = league;
         this.managers = new ArrayList<>(league.getTeams().stream()
                 .map(Team::getManager)
                 .distinct()
                 .toList());
-        this.draftPool = new ArrayList<>(draftPool);
+        this.draftPool = new DraftPool(draftPool);
         this.selectedPlayers = new ConcurrentHashMap<>();
+        this.squadCounts = new HashMap<>();
         this.currentPickIndex = 0;
         this.isDraftComplete = false;
-        this.timer = new Timer();
         managers.forEach(manager -> selectedPlayers.put(manager.getId(), new ArrayList<>()));
+        managers.forEach(manager -> squadCounts.put(manager.getId(), new SquadCounts(this.draftPool.getClubCount())));
+        this.managerDtos = new HashMap<>();
+        managers.forEach(manager -> managerDtos.put(manager.getId(), new ManagerDto(manager)));
         this.draftService = draftService;
         this.draftWebSocketHandler = draftWebSocketHandler;
         this.draftSessionManager = draftSessionManager;
-        this.leagueRepository = leagueRepository;
-        this.managerRepository = managerRepository;
-        this.teamRepository = teamRepository;
+        this.turnTimer = turnTimer;
+        this.eventLoop = eventLoopGroup.newEventLoop(league.getId());
+        this.draftPickJournal = draftPickJournal;
+        this.draftFinalizer = draftFinalizer;
+    }
+
+    public void pickPlayer(long managerId, long playerId) {
+        eventLoop.execute(() -> pick(managerId, playerId));
     }
 
-    public synchronized void pickPlayer(long managerId, Player player) {
-        if (isDraftComplete || !draftPool.contains(player) || currentManager().getId() != managerId) {
+    private void pick(long managerId, long playerId) {
+        int index = draftPool.indexOfAvailable(playerId);
+        if (isDraftComplete || index < 0 || currentManager().getId() != managerId) {
             System.out.println("Invalid pick attempt by Manager ID " + managerId + " in league " + league.getName() + " (ID: " + league.getId() + ")");
             return;
         }
 
-        if (!isValidPick(managerId, player)) {
+        if (!isValidPick(managerId, index)) {
             System.out.println("VIVUVUVUVUVU");
             return;
         }
 
-        System.out.println("Manager " + managerId + " picked player " + player.getFirstName() + " " + player.getLastName() + " in league " + league.getName() + " (ID: " + league.getId() + ")");
-        String managerName = "Unknown";
-        if (managerRepository.findById(managerId).isPresent()) {
-            managerName = managerRepository.findById(managerId).get().getUsername();
-        }
-        String playerName = "";
-        if (!player.getFirstName().isBlank()) {
-            playerName = player.getFirstName() + " ";
-        }
-        lastPickMessage = managerName + " picked " + playerName + player.getLastName() + " (" + player.getClub().getShortName() + ")";
-        selectedPlayers.get(managerId).add(player);
-        draftPool.remove(player);
+        PlayerRecord player = applyPick(managerId, index);
+        System.out.println("Manager " + managerId + " picked player " + player.firstName() + " " + player.lastName() + " in league " + league.getName() + " (ID: " + league.getId() + ")");
+        draftPickJournal.append(new DraftPick(league.getId(), turn, managerId, player.id()));
 
         if (allTeamsCompleted()) {
-            notifyDraftCompleted();
+            notifyDraftCompleted(managerId, player);
         } else {
             moveToNextPick();
+            sendDraftEvent(DraftEvent.Type.PICK, managerId, player);
         }
     }
 
-    private void moveToNextPick() {
-        currentPickIndex = (currentPickIndex + 1) % managers.size();
-        if (currentPickIndex == 0) {
-            Collections.reverse(managers);
+    /**
+     * Rebuilds a draft interrupted by a restart from its journaled picks, then restarts the clock on the
+     * turn it stopped at.
+     */
+    public void resumeDraft(List<DraftPick> draftPicks) {
+        eventLoop.execute(() -> resume(draftPicks));
+    }
+
+    private void resume(List<DraftPick> draftPicks) {
+        Long lastManagerId = null;
+        PlayerRecord lastPlayer = null;
+        for (DraftPick draftPick : draftPicks) {
+            // Turns of managers the pool could not fill passed without a pick, so catch up to the turn the pick was made on
+            while (turn < draftPick.getTurn()) {
+                advanceTurn();
+            }
+            int index = draftPool.indexOfAvailable(draftPick.getPlayerId());
+            if (index < 0 || currentManager().getId() != draftPick.getManagerId()) {
+                System.out.println("Skipping journaled pick " + draftPick + " that no longer fits league " + league.getName() + " (ID: " + league.getId() + ")");
+                continue;
+            }
+            lastManagerId = draftPick.getManagerId();
+            lastPlayer = applyPick(lastManagerId, index);
+            if (!allTeamsCompleted()) {
+                advanceToNextPick();
+            }
+        }
+
+        System.out.println("Resumed draft for league " + league.getName() + " (ID: " + league.getId() + ") after " + draftPicks.size() + " picks");
+        if (lastPlayer != null && allTeamsCompleted()) {
+            notifyDraftCompleted(lastManagerId, lastPlayer);
+        } else {
+            start();
         }
+    }
+
+    private PlayerRecord applyPick(long managerId, int index) {
+        PlayerRecord player = draftPool.get(index);
+        String managerName = managerDtos.get(managerId).getUsername();
+        String playerName = "";
+        if (!player.firstName().isBlank()) {
+            playerName = player.firstName() + " ";
+        }
+        lastPickMessage = managerName + " picked " + playerName + player.lastName() + " (" + player.club().shortName() + ")";
+        selectedPlayers.get(managerId).add(player);
+        draftPool.take(index);
+        SquadCounts counts = squadCounts.get(managerId);
+        counts.positions[draftPool.positionIndexOf(index)]++;
+        counts.clubs[draftPool.clubIndexOf(index)]++;
+        return player;
+    }
+
+    private void moveToNextPick() {
+        advanceToNextPick();
         System.out.println("Next pick: Manager " + currentManager().getId() + " in league " + league.getName() + " (ID: " + league.getId() + ")");
         scheduleNextPick();
     }
 
     private void scheduleNextPick() {
-        if (currentTask != null) {
-            currentTask.cancel();
+        if (currentDeadline != null) {
+            currentDeadline.cancel();
         }
-        currentTask = new TimerTask() {
-            @Override
-            public void run() {
-                autoPickPlayer();
-            }
-        };
-        timer.schedule(currentTask, league.getDraftTurnDurationMilliseconds());
-
-        sendDraftStateUpdate();
+        int scheduledTurn = turn;
+        currentDeadline = turnTimer.schedule(() -> eventLoop.execute(() -> onTurnExpired(scheduledTurn)),
+                league.getDraftTurnDurationMilliseconds());
     }
 
-    private void autoPickPlayer() {
-        List<Player> currentTeamPlayers = selectedPlayers.get(currentManager().getId());
-        long goalkeepers = currentTeamPlayers.stream().filter(p -> p.getPosition().equals("goalkeeper")).count();
-        long defenders = currentTeamPlayers.stream().filter(p -> p.getPosition().equals("defender")).count();
-        long midfielders = currentTeamPlayers.stream().filter(p -> p.getPosition().equals("midfielder")).count();
-        long forwards = currentTeamPlayers.stream().filter(p -> p.getPosition().equals("forward")).count();
+    private void onTurnExpired(int expiredTurn) {
+        // A manual pick can be queued ahead of this deadline; only auto-pick the turn it was set for
+        if (isDraftComplete || expiredTurn != turn) {
+            return;
+        }
+        autoPick();
+    }
 
-        Set<String> validPositions = new HashSet<>();
+    void autoPickPlayer() {
+        eventLoop.execute(this::autoPick);
+    }
 
-        if (goalkeepers < 2) {
-            validPositions.add("goalkeeper");
-        }
-        if (defenders < 5) {
-            validPositions.add("defender");
-        }
-        if (midfielders < 5) {
-            validPositions.add("midfielder");
+    private void autoPick() {
+        if (isDraftComplete) {
+            return;
         }
-        if (forwards < 3) {
-            validPositions.add("forward");
+        long managerId = currentManager().getId();
+        SquadCounts counts = squadCounts.get(managerId);
+        int[] candidates = draftPool.findCandidates(openPositions(counts), openClubs(counts));
+
+        if (candidates.length == 0) {
+            if (allTeamsCompleted()) {
+                System.out.println("No eligible players left to auto-pick in league " + league.getName() + " (ID: " + league.getId() + "), ending the draft with the squads picked so far");
+                notifyDraftCompleted(null, null);
+                return;
+            }
+            System.out.println("No eligible players left to auto-pick for Manager " + managerId + " in league " + league.getName() + " (ID: " + league.getId() + "), skipping turn");
+            moveToNextPick();
+            sendDraftEvent(DraftEvent.Type.TURN, null, null);
+            return;
         }
 
-        Set<Club> excludedClubs = currentTeamPlayers.stream()
-                .collect(Collectors.groupingBy(Player::getClub, Collectors.counting()))
-                .entrySet().stream()
-                .filter(entry -> entry.getValue() >= league.getMaxNumberOfPlayersFromAClub())
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toSet());
-
-        List<Player> filteredPlayers = draftPool.stream()
-                .filter(player -> !excludedClubs.contains(player.getClub()))
-                .filter(player -> validPositions.contains(player.getPosition()))
-                .toList();
-
-        int randomIndex = random.nextInt(filteredPlayers.size());
+        PlayerRecord player = draftPool.get(candidates[random.nextInt(candidates.length)]);
+        System.out.println("Auto-picking player " + player.firstName() + " " + player.lastName() + " for Manager " + managerId + " in league " + league.getName() + " (ID: " + league.getId() + ")");
+        pick(managerId, player.id());
+    }
 
-        Optional<Player> randomPlayer = Optional.of(filteredPlayers.get(randomIndex));
+    private void advanceTurn() {
+        turn++;
+        currentPickIndex = (currentPickIndex + 1) % managers.size();
+        if (currentPickIndex == 0) {
+            Collections.reverse(managers);
+        }
+    }
 
-        randomPlayer.ifPresent(player -> {
-            System.out.println("Auto-picking player " + player.getFirstName() + " " + player.getLastName() + " for Manager " + currentManager().getId() + " in league " + league.getName() + " (ID: " + league.getId() + ")");
-            pickPlayer(currentManager().getId(), player);
-        });
+    private void advanceToNextPick() {
+        // Managers the pool can no longer fill lose their turns, so the clock only runs for someone who can pick
+        do {
+            advanceTurn();
+        } while (!canPick(currentManager().getId()));
     }
 
     private Manager currentManager() {
@@ -179,111 +234,141 @@ public class DraftSession {
         return managers.get(nextPickIndex);
     }
 
+    /**
+     * Returns whether no manager can pick anymore. A full squad has no open positions, so this also covers
+     * squads the pool can no longer fill.
+     */
     private boolean allTeamsCompleted() {
-        return selectedPlayers.values().stream().allMatch(players -> players.size() == 15);
+        return managers.stream().noneMatch(manager -> canPick(manager.getId()));
     }
 
-    public void startDraft() {
-        System.out.println("Starting draft for league " + league.getName() + " (ID: " + league.getId() + ")");
-        scheduleNextPick();
+    private boolean canPick(long managerId) {
+        SquadCounts counts = squadCounts.get(managerId);
+        return draftPool.hasCandidates(openPositions(counts), openClubs(counts));
     }
 
-    @Transactional
-    private void notifyDraftCompleted() {
-        isDraftComplete = true;
-        if (currentTask != null) {
-            currentTask.cancel();
-        }
-        timer.cancel();
-
-        sendDraftStateUpdate();
+    private IntPredicate openPositions(SquadCounts counts) {
+        return position -> counts.positions[position] < POSITIONS[position].getSquadLimit();
+    }
 
-        for (Map.Entry<Long, List<Player>> entry : selectedPlayers.entrySet()) {
-            Long managerId = entry.getKey();
-            List<Player> players = entry.getValue();
+    private IntPredicate openClubs(SquadCounts counts) {
+        return club -> counts.clubs[club] < league.getMaxNumberOfPlayersFromAClub();
+    }
 
-            Manager manager = managerRepository.findById(managerId)
-                    .orElseThrow(() -> new ManagerNotFoundException("Manager not found for ID: " + managerId));
+    public void startDraft() {
+        eventLoop.execute(this::start);
+    }
 
-            Optional<Team> optionalTeam = teamRepository.findByManagerAndLeague(manager, league);
-            Team team = optionalTeam.orElseThrow(() -> new TeamNotFoundException("Team not found for manager ID: " + managerId + " in league " + league.getName()));
+    private void start() {
+        System.out.println("Starting draft for league " + league.getName() + " (ID: " + league.getId() + ")");
+        scheduleNextPick();
+        sendDraftEvent(DraftEvent.Type.TURN, null, null);
+    }
 
-            team.setCurrentPlayers(new HashSet<>(players));
-            teamRepository.save(team);
+    private void notifyDraftCompleted(Long lastManagerId, PlayerRecord lastPlayer) {
+        isDraftComplete = true;
+        if (currentDeadline != null) {
+            currentDeadline.cancel();
+            currentDeadline = null;
         }
 
-        league.setStatus("in season");
-        leagueRepository.save(league);
+        sendDraftEvent(lastPlayer != null ? DraftEvent.Type.PICK : DraftEvent.Type.TURN, lastManagerId, lastPlayer);
 
-        draftSessionManager.removeDraftSession(league.getId());
-        draftWebSocketHandler.sendDraftComplete(league.getId());
-        System.out.println("Draft complete for league " + league.getName() + " (ID: " + league.getId() + ")");
+        Map<Long, List<Long>> squads = new HashMap<>();
+        selectedPlayers.forEach((managerId, players) -> squads.put(managerId, players.stream().map(PlayerRecord::id).toList()));
+        System.out.println("All picks made for league " + league.getName() + " (ID: " + league.getId() + "), saving squads");
+        draftFinalizer.submit(league.getId(), squads);
     }
 
     public boolean isDraftComplete() {
         return isDraftComplete;
     }
 
+    public void close() {
+        eventLoop.close();
+    }
+
+    /**
+     * Builds the full draft state. Like everything else that reads the draft, call it from the draft's event loop.
+     */
     public DraftState getDraftState() {
-        ManagerDto currentManagerDto = new ManagerDto(this.currentManager());
+        ManagerDto currentManagerDto = managerDtos.get(this.currentManager().getId());
         ManagerDto nextManagerDto = new ManagerDto();
         Manager nextManager = this.nextManager();
         if (nextManager != null) {
-            nextManagerDto = new ManagerDto(nextManager);
+            nextManagerDto = managerDtos.get(nextManager.getId());
         }
 
         Map<ManagerDto, List<PlayerDto>> selectedPlayerDtos = selectedPlayers.entrySet().stream()
                 .collect(Collectors.toMap(
-                        entry -> new ManagerDto(managerRepository.findById(entry.getKey())
-                                .orElseThrow(() -> new ManagerNotFoundException("Manager not found for ID: " + entry.getKey()))),
+                        entry -> managerDtos.get(entry.getKey()),
                         entry -> entry.getValue().stream().map(PlayerDto::new).collect(Collectors.toList())
                 ));
-        List<PlayerDto> draftPoolDtos = draftPool.stream().map(PlayerDto::new).collect(Collectors.toList());
+        List<PlayerDto> draftPoolDtos = draftPool.getAvailablePlayers().stream().map(PlayerDto::new).collect(Collectors.toList());
 
         return new DraftState(currentManagerDto,
                 nextManagerDto,
                 selectedPlayerDtos,
                 draftPoolDtos,
                 lastPickMessage,
-                calculateRemainingTime()
+                calculateRemainingTime(),
+                sequence
         );
     }
 
     private long calculateRemainingTime() {
-        if (currentTask != null) {
-            long remainingTime = currentTask.scheduledExecutionTime() - System.currentTimeMillis();;
-            return remainingTime > 0 ? remainingTime : 0;
+        if (currentDeadline != null) {
+            return currentDeadline.getRemainingMilliseconds();
         } else {
             return 0;
         }
     }
 
-    private void sendDraftStateUpdate() {
-        draftWebSocketHandler.sendDraftStateUpdate(league.getId(), this.getDraftState());
+    public DraftSnapshot getDraftSnapshot() {
+        if (snapshot == null || snapshot.getSequence() != sequence) {
+            snapshot = draftWebSocketHandler.createSnapshot(this.getDraftState());
+        }
+        return snapshot;
+    }
+
+    public void sendDraftStateToUser(String username) {
+        eventLoop.execute(() -> draftWebSocketHandler.sendDraftSnapshotToUser(league.getId(),
+                this.getDraftSnapshot(), calculateRemainingTime(), username));
     }
 
-    private boolean isValidPick(long managerId, Player player) {
-        List<Player> players = selectedPlayers.get(managerId);
+    private void sendDraftEvent(DraftEvent.Type type, Long pickedById, PlayerRecord player) {
+        sequence++;
+        Manager nextManager = this.nextManager();
+        DraftEvent draftEvent = new DraftEvent(sequence,
+                type,
+                pickedById != null ? managerDtos.get(pickedById) : null,
+                player != null ? new PlayerDto(player) : null,
+                managerDtos.get(this.currentManager().getId()),
+                nextManager != null ? managerDtos.get(nextManager.getId()) : new ManagerDto(),
+                lastPickMessage,
+                calculateRemainingTime(),
+                isDraftComplete
+        );
+        draftWebSocketHandler.sendDraftEvent(league.getId(), draftEvent);
+    }
+
+    private boolean isValidPick(long managerId, int index) {
+        SquadCounts counts = squadCounts.get(managerId);
 
-        long clubCount = players.stream().filter(p -> p.getClub().equals(player.getClub())).count();
-        if (clubCount >= league.getMaxNumberOfPlayersFromAClub()) {
+        if (counts.clubs[draftPool.clubIndexOf(index)] >= league.getMaxNumberOfPlayersFromAClub()) {
             return false;
         }
 
-        String position = player.getPosition();
+        int position = draftPool.positionIndexOf(index);
+        return position >= 0 && counts.positions[position] < POSITIONS[position].getSquadLimit();
+    }
 
-        long samePositions = players.stream().filter(p -> p.getPosition().equals(position)).count();
+    private static final class SquadCounts {
+        private final int[] positions = new int[Position.COUNT];
+        private final int[] clubs;
 
-        if ("goalkeeper".equals(position)) {
-            return samePositions < 2;
-        } else if ("defender".equals(position)) {
-            return samePositions < 5;
-        } else if ("midfielder".equals(position)) {
-            return samePositions < 5;
-        } else if ("forward".equals(position)) {
-            return samePositions < 3;
+        private SquadCounts(int clubCount) {
+            this.clubs = new int[clubCount];
         }
-
-        return false;
     }
 }
\ No newline at end of file
@@ -1,25 +1,127 @@
 package com.winwin.orbital.draft;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Registry of the drafts running on this node. Each league's draft is assigned to one node of the cluster
+ * by consistent hashing and stays with the node that claimed it; picks and state requests arriving at
+ * any other node are forwarded to the owner through the coordination store.
+ */
 @Component
 public class DraftSessionManager {
 
-    private final Map<Long, DraftSession> draftSessions = new HashMap<>();
+    private final Map<Long, DraftSession> draftSessions = new ConcurrentHashMap<>();
+    private final DraftCoordinationStore coordinationStore;
+    private final String nodeId;
+    private volatile ConsistentHashRing ring;
+
+    @Autowired
+    public DraftSessionManager(DraftCoordinationStore coordinationStore,
+                               @Value("${draft.cluster.node-id:local}") String nodeId) {
+        this.coordinationStore = coordinationStore;
+        this.nodeId = nodeId;
+    }
+
+    @PostConstruct
+    public void joinCluster() {
+        coordinationStore.joinCluster(nodeId, this::handleCommand);
+    }
+
+    @PreDestroy
+    public void leaveCluster() {
+        draftSessions.keySet().forEach(leagueId -> coordinationStore.releaseDraft(leagueId, nodeId));
+        coordinationStore.leaveCluster(nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
 
     public DraftSession getDraftSession(long leagueId) {
         return draftSessions.get(leagueId);
     }
 
-    public void addDraftSession(DraftSession draftSession) {
-        draftSessions.put(draftSession.getLeague().getId(), draftSession);
+    public boolean isAssignedToThisNode(long leagueId) {
+        return nodeId.equals(ring().ownerOf(leagueId));
+    }
+
+    public String ownerOf(long leagueId) {
+        return coordinationStore.getDraftOwner(leagueId).orElseGet(() -> ring().ownerOf(leagueId));
+    }
+
+    /**
+     * Registers a draft on this node. Returns false when another node owns the draft or when this node is
+     * already running a session for the league, which keeps running; the caller closes the rejected session.
+     */
+    public boolean addDraftSession(DraftSession draftSession) {
+        long leagueId = draftSession.getLeague().getId();
+        if (draftSessions.containsKey(leagueId) || !coordinationStore.claimDraft(leagueId, nodeId)) {
+            return false;
+        }
+        return draftSessions.putIfAbsent(leagueId, draftSession) == null;
     }
 
     public void removeDraftSession(long leagueId) {
-        draftSessions.remove(leagueId);
+        DraftSession draftSession = draftSessions.remove(leagueId);
+        if (draftSession != null) {
+            draftSession.close();
+            coordinationStore.releaseDraft(leagueId, nodeId);
+        }
     }
 
-}
\ No newline at end of file
+    public void pickPlayer(long leagueId, long managerId, long playerId) {
+        route(DraftCommand.pickPlayer(leagueId, managerId, playerId));
+    }
+
+    public void sendDraftState(long leagueId, String username) {
+        route(DraftCommand.sendDraftState(leagueId, username));
+    }
+
+    private void route(DraftCommand command) {
+        if (draftSessions.containsKey(command.leagueId())) {
+            handleCommand(command);
+            return;
+        }
+
+        Optional<String> owner = coordinationStore.getDraftOwner(command.leagueId());
+        if (owner.isEmpty() || owner.get().equals(nodeId)) {
+            System.out.println("Invalid draft session for league " + command.leagueId());
+            return;
+        }
+        if (!coordinationStore.send(owner.get(), command)) {
+            System.out.println("Draft owner " + owner.get() + " for league " + command.leagueId() + " is unreachable");
+        }
+    }
+
+    private void handleCommand(DraftCommand command) {
+        DraftSession draftSession = draftSessions.get(command.leagueId());
+        if (draftSession == null || draftSession.isDraftComplete()) {
+            System.out.println("Invalid draft session for league " + command.leagueId());
+            return;
+        }
+
+        switch (command.type()) {
+            case PICK_PLAYER -> draftSession.pickPlayer(command.managerId(), command.playerId());
+            case SEND_DRAFT_STATE -> draftSession.sendDraftStateToUser(command.username());
+        }
+    }
+
+    private ConsistentHashRing ring() {
+        Set<String> nodes = coordinationStore.getNodes();
+        ConsistentHashRing current = ring;
+        if (current == null || !current.getNodes().equals(nodes)) {
+            current = new ConsistentHashRing(nodes);
+            ring = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,32 @@
+package com.winwin.orbital.draft;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A DraftState serialized once per draft event and shared by every client that asks for it until the next one.
+ * The remaining turn time is the only field that changes in between, so it is left out of the cached JSON and
+ * written in front of it when the snapshot is sent.
+ */
+public final class DraftSnapshot {
+
+    private final long sequence;
+    private final byte[] json;
+
+    DraftSnapshot(long sequence, byte[] json) {
+        this.sequence = sequence;
+        this.json = json;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public byte[] toJson(long remainingTime) {
+        boolean hasFields = json.length > 2;
+        byte[] prefix = ("{\"remainingTime\":" + remainingTime + (hasFields ? "," : "")).getBytes(StandardCharsets.US_ASCII);
+        byte[] message = new byte[prefix.length + json.length - 1];
+        System.arraycopy(prefix, 0, message, 0, prefix.length);
+        System.arraycopy(json, 1, message, prefix.length, json.length - 1);
+        return message;
+    }
+}
@@ -20,4 +20,6 @@ public class DraftState {
     private final String lastPickMessage;
     @ToString.Include
     private final long remainingTime;
+    @ToString.Include
+    private final long sequence;
 }
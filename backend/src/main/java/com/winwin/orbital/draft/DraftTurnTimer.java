@@ -0,0 +1,93 @@
+package com.winwin.orbital.draft;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pick deadlines for every live draft on this node, run on one small shared pool instead of a thread per draft.
+ * A deadline task that throws is counted and logged without taking the pool thread down with it.
+ */
+@Component
+public class DraftTurnTimer {
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final Counter scheduled;
+    private final Counter fired;
+    private final Counter cancelled;
+    private final Counter failed;
+    private final Timer lag;
+
+    @Autowired
+    public DraftTurnTimer(MeterRegistry meterRegistry, @Value("${draft.turn-timer.threads:2}") int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "draft-turn-timer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Most deadlines are cancelled by a manual pick, so drop them from the queue straight away
+        this.executor.setRemoveOnCancelPolicy(true);
+
+        this.scheduled = meterRegistry.counter("draft.turn.deadlines.scheduled");
+        this.fired = meterRegistry.counter("draft.turn.deadlines.fired");
+        this.cancelled = meterRegistry.counter("draft.turn.deadlines.cancelled");
+        this.failed = meterRegistry.counter("draft.turn.deadlines.failed");
+        this.lag = meterRegistry.timer("draft.turn.deadlines.lag");
+        meterRegistry.gauge("draft.turn.deadlines.pending", executor, e -> e.getQueue().size());
+    }
+
+    public Deadline schedule(Runnable task, long delayMilliseconds) {
+        long delay = Math.max(delayMilliseconds, 0);
+        long dueNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+        long dueTime = System.currentTimeMillis() + delay;
+
+        ScheduledFuture<?> future = executor.schedule(() -> {
+            lag.record(Math.max(System.nanoTime() - dueNanos, 0), TimeUnit.NANOSECONDS);
+            fired.increment();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                failed.increment();
+                System.out.println("Draft turn deadline failed: " + e);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+        scheduled.increment();
+        return new Deadline(future, dueTime);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public class Deadline {
+
+        private final ScheduledFuture<?> future;
+        private final long dueTime;
+
+        private Deadline(ScheduledFuture<?> future, long dueTime) {
+            this.future = future;
+            this.dueTime = dueTime;
+        }
+
+        public void cancel() {
+            if (future.cancel(false)) {
+                cancelled.increment();
+            }
+        }
+
+        public long getRemainingMilliseconds() {
+            return Math.max(dueTime - System.currentTimeMillis(), 0);
+        }
+    }
+}
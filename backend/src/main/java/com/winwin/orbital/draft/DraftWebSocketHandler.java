@@ -1,30 +1,76 @@
 package com.winwin.orbital.draft;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
 
 @Component
 public class DraftWebSocketHandler {
 
+    /** STOMP headers that let a session's send buffer recognise draft frames it may coalesce or drop. */
+    public static final String FRAME_HEADER = "draft-frame";
+    public static final String LEAGUE_HEADER = "draft-league";
+    public static final String EVENT_FRAME = "event";
+    public static final String SNAPSHOT_FRAME = "snapshot";
+
     private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectWriter snapshotWriter;
 
-    public DraftWebSocketHandler(SimpMessagingTemplate messagingTemplate) {
+    @Autowired
+    public DraftWebSocketHandler(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper) {
         this.messagingTemplate = messagingTemplate;
+        this.snapshotWriter = objectMapper.copy()
+                .addMixIn(DraftState.class, SnapshotFields.class)
+                .writerFor(DraftState.class);
     }
 
     public void sendDraftComplete(long leagueId) {
         messagingTemplate.convertAndSend("/topic/draft/" + leagueId + "/complete", "Draft Complete");
     }
 
-    public void sendDraftStateUpdate(long leagueId, DraftState draftState) {
-        messagingTemplate.convertAndSend("/topic/draft/" + leagueId, draftState);
+    public void sendDraftEvent(long leagueId, DraftEvent draftEvent) {
+        messagingTemplate.convertAndSend("/topic/draft/" + leagueId, draftEvent,
+                Map.<String, Object>of(FRAME_HEADER, EVENT_FRAME, LEAGUE_HEADER, String.valueOf(leagueId)));
+    }
+
+    public DraftSnapshot createSnapshot(DraftState draftState) {
+        try {
+            return new DraftSnapshot(draftState.getSequence(), snapshotWriter.writeValueAsBytes(draftState));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize draft state", e);
+        }
     }
 
-    public void sendDraftStateUpdateToUser(long leagueId, DraftState draftState, String username) {
-        messagingTemplate.convertAndSendToUser(username, "/topic/draft/" + leagueId, draftState);
+    public void sendDraftSnapshotToUser(long leagueId, DraftSnapshot draftSnapshot, long remainingTime, String username) {
+        // Already JSON, so skip the template's message converters
+        SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headerAccessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        headerAccessor.setNativeHeader(FRAME_HEADER, SNAPSHOT_FRAME);
+        headerAccessor.setNativeHeader(LEAGUE_HEADER, String.valueOf(leagueId));
+        headerAccessor.setLeaveMutable(true);
+        String destination = messagingTemplate.getUserDestinationPrefix()
+                + StringUtils.replace(username, "/", "%2F")
+                + "/topic/draft/" + leagueId;
+        messagingTemplate.send(destination,
+                MessageBuilder.createMessage(draftSnapshot.toJson(remainingTime), headerAccessor.getMessageHeaders()));
     }
 
     public void sendDraftStartSoonToUser(long leagueId, long millisecondsToDraftStart, String username) {
         messagingTemplate.convertAndSendToUser(username, "/topic/draft/" + leagueId + "/start", millisecondsToDraftStart);
     }
+
+    @JsonIgnoreProperties("remainingTime")
+    private abstract static class SnapshotFields {
+    }
 }
@@ -0,0 +1,68 @@
+package com.winwin.orbital.draft;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Coordination store for a single JVM. It is the default for one backend instance, and several
+ * DraftSessionManagers sharing one instance behave like a cluster of nodes.
+ * <p>
+ * Ownership lives only in this JVM's memory, so it is for single-instance deployments only: separate
+ * backend instances using it each see themselves as the whole cluster and would all run every draft.
+ * Running more than one instance needs a store shared between them.
+ */
+@Component
+@ConditionalOnProperty(name = "draft.cluster.store", havingValue = "in-memory", matchIfMissing = true)
+public class InMemoryDraftCoordinationStore implements DraftCoordinationStore {
+
+    private final Map<String, Consumer<DraftCommand>> nodes = new ConcurrentHashMap<>();
+    private final Map<Long, String> draftOwners = new ConcurrentHashMap<>();
+
+    @Override
+    public void joinCluster(String nodeId, Consumer<DraftCommand> commandHandler) {
+        nodes.put(nodeId, commandHandler);
+    }
+
+    @Override
+    public void leaveCluster(String nodeId) {
+        nodes.remove(nodeId);
+        draftOwners.values().removeIf(nodeId::equals);
+    }
+
+    @Override
+    public Set<String> getNodes() {
+        return Set.copyOf(nodes.keySet());
+    }
+
+    @Override
+    public boolean claimDraft(long leagueId, String nodeId) {
+        String owner = draftOwners.putIfAbsent(leagueId, nodeId);
+        return owner == null || owner.equals(nodeId);
+    }
+
+    @Override
+    public void releaseDraft(long leagueId, String nodeId) {
+        draftOwners.remove(leagueId, nodeId);
+    }
+
+    @Override
+    public Optional<String> getDraftOwner(long leagueId) {
+        return Optional.ofNullable(draftOwners.get(leagueId));
+    }
+
+    @Override
+    public boolean send(String nodeId, DraftCommand command) {
+        Consumer<DraftCommand> commandHandler = nodes.get(nodeId);
+        if (commandHandler == null) {
+            return false;
+        }
+        commandHandler.accept(command);
+        return true;
+    }
+}
@@ -1,15 +1,70 @@
 package com.winwin.orbital.gameweek;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * The gameweek clock. The current gameweek is the first one in the schedule that has not ended yet; once the
+ * last gameweek of the schedule is over, it is the one after it. The answer is kept in memory until the current
+ * gameweek ends or {@code gameweek.clock.refresh-interval-ms} passes, whichever comes first. With an empty
+ * schedule the clock stays at {@code gameweek.fallback-season} and {@code gameweek.fallback-gameweek}.
+ */
 @Component
 public class GameweekComponent {
 
+    private final GameweekScheduleRepository gameweekScheduleRepository;
+    private final String fallbackSeason;
+    private final int fallbackGameweek;
+    private final long refreshIntervalMs;
+    private volatile Current current;
+
+    @Autowired
+    public GameweekComponent(GameweekScheduleRepository gameweekScheduleRepository,
+                             @Value("${gameweek.fallback-season:24/25}") String fallbackSeason,
+                             @Value("${gameweek.fallback-gameweek:5}") int fallbackGameweek,
+                             @Value("${gameweek.clock.refresh-interval-ms:60000}") long refreshIntervalMs) {
+        this.gameweekScheduleRepository = gameweekScheduleRepository;
+        this.fallbackSeason = fallbackSeason;
+        this.fallbackGameweek = fallbackGameweek;
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
     public String getCurrentSeason() {
-        return "24/25";
+        return current().season();
     }
 
     public int getCurrentGameweek() {
-        return 5;
+        return current().gameweek();
+    }
+
+    public void invalidate() {
+        current = null;
+    }
+
+    private Current current() {
+        long now = System.currentTimeMillis();
+        Current cached = current;
+        if (cached == null || now >= cached.validUntil()) {
+            cached = load(now);
+            current = cached;
+        }
+        return cached;
+    }
+
+    private Current load(long now) {
+        long validUntil = now + refreshIntervalMs;
+        return gameweekScheduleRepository.findFirstByEndsAtAfterOrderByEndsAtAsc(LocalDateTime.now())
+                .map(gameweek -> new Current(gameweek.getSeason(), gameweek.getGameweek(), Math.min(validUntil,
+                        gameweek.getEndsAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())))
+                .or(() -> gameweekScheduleRepository.findFirstByOrderByEndsAtDesc()
+                        .map(last -> new Current(last.getSeason(), last.getGameweek() + 1, validUntil)))
+                .orElseGet(() -> new Current(fallbackSeason, fallbackGameweek, validUntil));
+    }
+
+    private record Current(String season, int gameweek, long validUntil) {
     }
 }
@@ -0,0 +1,259 @@
+package com.winwin.orbital.gameweek;
+
+import com.winwin.orbital.league.League;
+import com.winwin.orbital.lineup.Lineup;
+import com.winwin.orbital.lineup.LineupRepository;
+import com.winwin.orbital.lineup.LineupService;
+import com.winwin.orbital.player.Player;
+import com.winwin.orbital.playerperformance.GameweekPerformanceStamp;
+import com.winwin.orbital.playerperformance.PerformanceStats;
+import com.winwin.orbital.playerperformance.PlayerPerformance;
+import com.winwin.orbital.playerperformance.PlayerPerformanceRepository;
+import com.winwin.orbital.playerperformance.PlayerPerformanceService;
+import com.winwin.orbital.powerupusage.PowerupUsageService;
+import com.winwin.orbital.team.Team;
+import com.winwin.orbital.team.TeamRepository;
+import com.winwin.orbital.teamgameweekscore.GameweekPlayerResult;
+import com.winwin.orbital.teamgameweekscore.TeamGameweekScoreService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Scores every gameweek that has ended, once, for every team of every league that is in season. Each gameweek
+ * is handled in one transaction: the effective lineups and the gameweek's performances are loaded in bulk, the
+ * performances are scored once per league, auto-subs and lineup scoring run in parallel chunks of
+ * {@code gameweek.rollover.chunk-size} lineups, and the results and powerup counters are saved before the
+ * gameweek is marked as rolled over. If a gameweek fails it is retried on the next check, and later gameweeks
+ * wait for it. Every node runs the check; the gameweek's schedule row is locked while it is scored, so a
+ * gameweek is only scored once. Each check also scores again the rolled over gameweeks whose performances or
+ * league scoring rules changed since, as reads only serve the stored scores.
+ */
+@Component
+public class GameweekRollover {
+
+    private final GameweekScheduleRepository gameweekScheduleRepository;
+    private final GameweekComponent gameweekComponent;
+    private final TeamRepository teamRepository;
+    private final LineupRepository lineupRepository;
+    private final LineupService lineupService;
+    private final PlayerPerformanceRepository playerPerformanceRepository;
+    private final PlayerPerformanceService playerPerformanceService;
+    private final TeamGameweekScoreService teamGameweekScoreService;
+    private final PowerupUsageService powerupUsageService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final int chunkSize;
+    private final Timer duration;
+    private final Counter failed;
+
+    @Autowired
+    public GameweekRollover(GameweekScheduleRepository gameweekScheduleRepository,
+                            GameweekComponent gameweekComponent,
+                            TeamRepository teamRepository,
+                            LineupRepository lineupRepository,
+                            LineupService lineupService,
+                            PlayerPerformanceRepository playerPerformanceRepository,
+                            PlayerPerformanceService playerPerformanceService,
+                            TeamGameweekScoreService teamGameweekScoreService,
+                            PowerupUsageService powerupUsageService,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${gameweek.rollover.chunk-size:200}") int chunkSize) {
+        this.gameweekScheduleRepository = gameweekScheduleRepository;
+        this.gameweekComponent = gameweekComponent;
+        this.teamRepository = teamRepository;
+        this.lineupRepository = lineupRepository;
+        this.lineupService = lineupService;
+        this.playerPerformanceRepository = playerPerformanceRepository;
+        this.playerPerformanceService = playerPerformanceService;
+        this.teamGameweekScoreService = teamGameweekScoreService;
+        this.powerupUsageService = powerupUsageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "gameweek-rollover-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.duration = meterRegistry.timer("gameweek.rollover.duration");
+        this.failed = meterRegistry.counter("gameweek.rollovers.failed");
+    }
+
+    @Scheduled(fixedDelayString = "${gameweek.rollover.check-interval-ms:60000}",
+            initialDelayString = "${gameweek.rollover.check-interval-ms:60000}")
+    public void rollOverEndedGameweeks() {
+        List<GameweekSchedule> endedGameweeks = gameweekScheduleRepository
+                .findByEndsAtLessThanEqualAndRolledOverAtIsNullOrderByEndsAtAsc(LocalDateTime.now());
+        for (GameweekSchedule gameweek : endedGameweeks) {
+            try {
+                duration.record(() -> transactionTemplate.executeWithoutResult(status -> rollOver(gameweek.getId())));
+            } catch (RuntimeException e) {
+                failed.increment();
+                System.out.println("Failed to roll over gameweek " + gameweek.getGameweek() + " of season "
+                        + gameweek.getSeason() + ", it will be retried: " + e);
+                return;
+            } finally {
+                gameweekComponent.invalidate();
+            }
+        }
+
+        rescoreStaleGameweeks();
+    }
+
+    /**
+     * Scores again the rolled over gameweeks of the current season whose stored scores no longer match their
+     * performances or league scoring rules, or that miss a team, since reads only ever serve stored scores.
+     */
+    private void rescoreStaleGameweeks() {
+        String season = gameweekComponent.getCurrentSeason();
+        Map<Integer, GameweekSchedule> rolledOverGameweeks = gameweekScheduleRepository
+                .findBySeasonAndRolledOverAtIsNotNullOrderByGameweekAsc(season).stream()
+                .collect(Collectors.toMap(GameweekSchedule::getGameweek, Function.identity()));
+        if (rolledOverGameweeks.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> staleGameweeks = teamGameweekScoreService.findStaleGameweeks(
+                teamRepository.findInSeasonWithScoringRules(), season, rolledOverGameweeks.keySet());
+        for (int number : staleGameweeks) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rescore(rolledOverGameweeks.get(number).getId()));
+            } catch (RuntimeException e) {
+                failed.increment();
+                System.out.println("Failed to rescore gameweek " + number + " of season " + season
+                        + ", it will be retried: " + e);
+            }
+        }
+    }
+
+    /**
+     * Every node runs the check, so the gameweek's row is locked first and the gameweek is skipped when another
+     * node rolled it over while this one waited for the lock.
+     */
+    private void rollOver(long gameweekId) {
+        GameweekSchedule gameweek = gameweekScheduleRepository.findByIdForUpdate(gameweekId).orElseThrow();
+        if (gameweek.getRolledOverAt() != null) {
+            return;
+        }
+
+        List<Team> teams = teamRepository.findInSeasonWithScoringRules();
+        int lineups = score(gameweek, teams);
+
+        gameweek.setRolledOverAt(LocalDateTime.now());
+        gameweekScheduleRepository.save(gameweek);
+        System.out.println("Rolled over gameweek " + gameweek.getGameweek() + " of season " + gameweek.getSeason()
+                + ": " + lineups + " lineups scored for " + teams.size() + " teams");
+    }
+
+    private void rescore(long gameweekId) {
+        GameweekSchedule gameweek = gameweekScheduleRepository.findByIdForUpdate(gameweekId).orElseThrow();
+        List<Team> teams = teamRepository.findInSeasonWithScoringRules();
+        if (teamGameweekScoreService.findStaleGameweeks(teams, gameweek.getSeason(), List.of(gameweek.getGameweek()))
+                .isEmpty()) {
+            return;
+        }
+
+        int lineups = score(gameweek, teams);
+        System.out.println("Rescored gameweek " + gameweek.getGameweek() + " of season " + gameweek.getSeason()
+                + ": " + lineups + " lineups scored for " + teams.size() + " teams");
+    }
+
+    /**
+     * Scores the gameweek for the given teams and saves the results over any stored ones, returning the number
+     * of lineups scored. Powerup counters already locked through the gameweek are left as they are, so scoring
+     * a gameweek again is safe.
+     */
+    private int score(GameweekSchedule gameweek, List<Team> teams) {
+        String season = gameweek.getSeason();
+        int number = gameweek.getGameweek();
+
+        Map<Long, Lineup> lineupsByTeam = lineupRepository.findEffectiveWithPlayersBySeasonAndGameweek(season, number).stream()
+                .collect(Collectors.toMap(lineup -> lineup.getTeam().getId(), Function.identity(),
+                        (lineup1, lineup2) -> lineup1.getId() > lineup2.getId() ? lineup1 : lineup2));
+        Map<Long, PlayerPerformance> performances = playerPerformanceRepository
+                .findWithPlayerBySeasonAndGameweek(season, number).stream()
+                .collect(Collectors.toMap(performance -> performance.getPlayer().getId(), Function.identity(),
+                        (performance1, performance2) -> performance1));
+        Map<Long, Player> substitutePlayers = lineupService.findPlayers(lineupsByTeam.values().stream()
+                .flatMap(lineup -> lineup.getSubstitutes().values().stream())
+                .collect(Collectors.toSet()));
+
+        Map<Long, Map<Long, Integer>> pointsByLeague = scorePerformances(teams, performances);
+        Map<Long, Map<Long, GameweekPlayerResult>> playerResults = scoreInChunks(
+                new ArrayList<>(lineupsByTeam.values()), performances, substitutePlayers, pointsByLeague);
+
+        GameweekPerformanceStamp stamp = teamGameweekScoreService.getPerformanceStamps(season)
+                .getOrDefault(number, GameweekPerformanceStamp.empty(number));
+        teamGameweekScoreService.saveGameweekScores(teams, season, number, lineupsByTeam, playerResults, stamp);
+        powerupUsageService.lockGameweek(teams, season, number, lineupsByTeam);
+        return lineupsByTeam.size();
+    }
+
+    /**
+     * Scores the gameweek's performances once for each league, packing them a single time, so lineups only
+     * look their players' points up.
+     */
+    private Map<Long, Map<Long, Integer>> scorePerformances(List<Team> teams, Map<Long, PlayerPerformance> performances) {
+        PerformanceStats.Packed packed = PerformanceStats.pack(new ArrayList<>(performances.values()));
+        Map<Long, Map<Long, Integer>> pointsByLeague = new HashMap<>();
+        for (Team team : teams) {
+            League league = team.getLeague();
+            if (!pointsByLeague.containsKey(league.getId())) {
+                int[] points = playerPerformanceService.calculateAllPointsInLeague(packed, league);
+                Map<Long, Integer> leaguePoints = new HashMap<>();
+                for (int i = 0; i < packed.size(); i++) {
+                    leaguePoints.put(packed.playerIds()[i], points[i]);
+                }
+                pointsByLeague.put(league.getId(), leaguePoints);
+            }
+        }
+        return pointsByLeague;
+    }
+
+    /**
+     * Scores the lineups on the rollover threads. Everything the scoring reads was loaded above, so the
+     * chunks never touch the persistence context.
+     */
+    private Map<Long, Map<Long, GameweekPlayerResult>> scoreInChunks(List<Lineup> lineups,
+                                                                     Map<Long, PlayerPerformance> performances,
+                                                                     Map<Long, Player> substitutePlayers,
+                                                                     Map<Long, Map<Long, Integer>> pointsByLeague) {
+        List<CompletableFuture<Map<Long, Map<Long, GameweekPlayerResult>>>> chunks = new ArrayList<>();
+        for (int from = 0; from < lineups.size(); from += chunkSize) {
+            List<Lineup> chunk = lineups.subList(from, Math.min(lineups.size(), from + chunkSize));
+            chunks.add(CompletableFuture.supplyAsync(() -> {
+                Map<Long, Map<Long, GameweekPlayerResult>> results = new HashMap<>();
+                for (Lineup lineup : chunk) {
+                    results.put(lineup.getTeam().getId(),
+                            teamGameweekScoreService.computePlayerResults(lineup, performances, substitutePlayers,
+                                    pointsByLeague.getOrDefault(lineup.getTeam().getLeague().getId(), Map.of())));
+                }
+                return results;
+            }, executor));
+        }
+
+        Map<Long, Map<Long, GameweekPlayerResult>> playerResults = new HashMap<>();
+        chunks.forEach(chunk -> playerResults.putAll(chunk.join()));
+        return playerResults;
+    }
+}
@@ -0,0 +1,42 @@
+package com.winwin.orbital.gameweek;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One gameweek of a season and the moment it ends. The gameweek is current until {@code endsAt}; after that
+ * its lineups are locked and {@link GameweekRollover} scores it, recording when in {@code rolledOverAt}.
+ */
+@ToString
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@Entity
+@Table(name = "gameweek_schedule",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"season", "gameweek"}),
+        indexes = @Index(name = "idx_gameweek_schedule_ends_at", columnList = "ends_at"))
+public class GameweekSchedule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    private String season;
+
+    private int gameweek;
+
+    private LocalDateTime endsAt;
+
+    @EqualsAndHashCode.Exclude
+    private LocalDateTime rolledOverAt;
+
+    public GameweekSchedule(String season, int gameweek, LocalDateTime endsAt) {
+        this.season = season;
+        this.gameweek = gameweek;
+        this.endsAt = endsAt;
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.winwin.orbital.gameweek;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GameweekScheduleRepository extends JpaRepository<GameweekSchedule, Long> {
+    Optional<GameweekSchedule> findFirstByEndsAtAfterOrderByEndsAtAsc(LocalDateTime time);
+
+    Optional<GameweekSchedule> findFirstByOrderByEndsAtDesc();
+
+    List<GameweekSchedule> findByEndsAtLessThanEqualAndRolledOverAtIsNullOrderByEndsAtAsc(LocalDateTime time);
+
+    List<GameweekSchedule> findBySeasonAndRolledOverAtIsNotNullOrderByGameweekAsc(String season);
+
+    /**
+     * Locks the gameweek's row until the end of the transaction, so only one node scores a gameweek at a time.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g FROM GameweekSchedule g WHERE g.id = :id")
+    Optional<GameweekSchedule> findByIdForUpdate(@Param("id") long id);
+}
@@ -0,0 +1,92 @@
+package com.winwin.orbital.jwt;
+
+import com.winwin.orbital.userdetails.JwtPrincipal;
+import com.winwin.orbital.userdetails.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the user behind each recently verified token, so repeated requests with the same token skip the
+ * signature check. The user is built from the token's claims; only older tokens without them need a lookup.
+ * An entry lives for at most {@code jwt.cache.ttl-ms} and never past the token's own expiry. Once
+ * {@code jwt.cache.max-size} tokens are cached, expired entries are purged and new tokens are verified without
+ * being cached until there is room again.
+ */
+@Component
+public class JwtAuthenticationCache {
+
+    private final JwtUtils jwtUtils;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final long ttlMs;
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public JwtAuthenticationCache(JwtUtils jwtUtils, UserDetailsServiceImpl userDetailsService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${jwt.cache.ttl-ms:60000}") long ttlMs,
+                                  @Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.jwtUtils = jwtUtils;
+        this.userDetailsService = userDetailsService;
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+        this.hits = meterRegistry.counter("jwt.cache.hits");
+        this.misses = meterRegistry.counter("jwt.cache.misses");
+        meterRegistry.gauge("jwt.cache.size", entries, Map::size);
+    }
+
+    /**
+     * Returns the user the token was issued to, or null if the token is not valid.
+     */
+    public UserDetails getUserDetails(String token) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(token);
+        if (entry != null && entry.expiresAt() > now) {
+            hits.increment();
+            return entry.userDetails();
+        }
+        misses.increment();
+
+        Claims claims = jwtUtils.getVerifiedClaims(token);
+        if (claims == null) {
+            if (entry != null) {
+                entries.remove(token);
+            }
+            return null;
+        }
+        UserDetails userDetails = JwtPrincipal.fromClaims(claims);
+        if (userDetails == null) {
+            // Issued before tokens carried the user's claims
+            userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+
+        long expiresAt = now + ttlMs;
+        if (claims.getExpiration() != null) {
+            expiresAt = Math.min(expiresAt, claims.getExpiration().getTime());
+        }
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(cached -> cached.expiresAt() <= now);
+        }
+        if (entries.size() < maxSize) {
+            entries.put(token, new Entry(userDetails, expiresAt));
+        }
+        return userDetails;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private record Entry(UserDetails userDetails, long expiresAt) {
+    }
+}
@@ -1,9 +1,12 @@
 package com.winwin.orbital.jwt;
 
+import com.winwin.orbital.user.User;
+import com.winwin.orbital.userdetails.JwtPrincipal;
 import com.winwin.orbital.userdetails.UserDetailsImpl;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -14,51 +17,57 @@ import java.util.Date;
 @Component
 public class JwtUtils {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private final long jwtExpirationMs;
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
 
-    @Value("${jwt.expiration}")
-    private long jwtExpirationMs;
+    @Autowired
+    public JwtUtils(@Value("${jwt.secret}") String jwtSecret, @Value("${jwt.expiration}") long jwtExpirationMs) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
 
     public String generateJwtToken(Authentication authentication) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
 
+        User user = userPrincipal.getUser();
+
         return Jwts.builder()
                 .subject((userPrincipal.getUsername()))
+                .claim(JwtPrincipal.USER_ID_CLAIM, user.getId())
+                .claim(JwtPrincipal.MANAGER_ID_CLAIM, user.getManager() != null ? user.getManager().getId() : null)
+                .claim(JwtPrincipal.ROLE_CLAIM, user.getRole())
                 .issuedAt(new Date())
                 .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
 
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Verifies the token and returns its claims in one parse, or null if the token is invalid or expired.
+     */
+    public Claims getVerifiedClaims(String token) {
+        try {
+            return jwtParser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            // JWT validation failed
+        }
+
+        return null;
     }
 
     public String getUsernameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
+        return jwtParser.parseSignedClaims(token)
                 .getPayload()
                 .getSubject();
-
     }
 
     public boolean validateJwtToken(String authToken) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            // JWT validation failed
-        }
-
-        return false;
+        return getVerifiedClaims(authToken) != null;
     }
 
 }
@@ -35,7 +35,7 @@ public class League {
 
     @NotBlank
     @EqualsAndHashCode.Exclude
-    private String status; // created, waiting for draft, drafting, in season, or post-season
+    private String status; // created, waiting for draft, drafting, draft failed, in season, or post-season
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "admin_id")
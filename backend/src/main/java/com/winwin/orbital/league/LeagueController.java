@@ -2,24 +2,56 @@ package com.winwin.orbital.league;
 
 import com.winwin.orbital.scoringrule.ScoringRuleDto;
 import com.winwin.orbital.team.TeamDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/league")
 public class LeagueController {
 
     private final LeagueService leagueService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public LeagueController(LeagueService leagueService) {
+    public LeagueController(LeagueService leagueService, ObjectMapper objectMapper) {
         this.leagueService = leagueService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * All the league page data in one response, optionally narrowed with {@code fields=name,teams,...}. The
+     * ETag is a hash of the body, so a client that sends it back in If-None-Match gets a 304 when nothing changed.
+     */
+    @GetMapping("/overview/{league_id}")
+    public ResponseEntity<?> getOverview(@PathVariable("league_id") Long leagueId,
+                                         @RequestParam(name = "fields", required = false) Set<String> fields,
+                                         @AuthenticationPrincipal UserDetails userDetails,
+                                         WebRequest request) throws JsonProcessingException {
+        LeagueOverviewDto overview = leagueService.getOverview(leagueId, fields == null ? Set.of() : fields, userDetails);
+
+        byte[] body = objectMapper.writeValueAsBytes(overview);
+        String eTag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     @GetMapping("/name/{league_id}")
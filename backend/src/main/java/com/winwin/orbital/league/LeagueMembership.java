@@ -0,0 +1,84 @@
+package com.winwin.orbital.league;
+
+import com.winwin.orbital.team.TeamRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers whether a manager has a team in a league, and which one. Only memberships that exist are cached,
+ * since a team is never removed from its league; an entry lives for {@code league.membership.cache.ttl-ms}
+ * and at most {@code league.membership.cache.max-size} are kept.
+ */
+@Component
+public class LeagueMembership {
+
+    private final TeamRepository teamRepository;
+    private final long ttlMs;
+    private final int maxSize;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public LeagueMembership(TeamRepository teamRepository, MeterRegistry meterRegistry,
+                            @Value("${league.membership.cache.ttl-ms:600000}") long ttlMs,
+                            @Value("${league.membership.cache.max-size:10000}") int maxSize) {
+        this.teamRepository = teamRepository;
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+        this.hits = meterRegistry.counter("league.membership.cache.hits");
+        this.misses = meterRegistry.counter("league.membership.cache.misses");
+        meterRegistry.gauge("league.membership.cache.size", entries, Map::size);
+    }
+
+    public Optional<Long> findTeamId(long managerId, long leagueId) {
+        long now = System.currentTimeMillis();
+        Key key = new Key(managerId, leagueId);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            hits.increment();
+            return Optional.of(entry.teamId());
+        }
+        misses.increment();
+
+        Optional<Long> teamId = teamRepository.findIdByManagerIdAndLeagueId(managerId, leagueId);
+        if (teamId.isEmpty()) {
+            entries.remove(key);
+            return teamId;
+        }
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(cached -> cached.expiresAt() <= now);
+        }
+        if (entries.size() < maxSize) {
+            entries.put(key, new Entry(teamId.get(), now + ttlMs));
+        }
+        return teamId;
+    }
+
+    public void requireMember(long managerId, long leagueId) {
+        if (findTeamId(managerId, leagueId).isEmpty()) {
+            throw new AccessDeniedException("Current manager is not in the league.");
+        }
+    }
+
+    /**
+     * Called when a manager joins or creates a league, so the next check reads the new team.
+     */
+    public void invalidate(long managerId, long leagueId) {
+        entries.remove(new Key(managerId, leagueId));
+    }
+
+    private record Key(long managerId, long leagueId) {
+    }
+
+    private record Entry(long teamId, long expiresAt) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.winwin.orbital.league;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.winwin.orbital.scoringrule.ScoringRuleDto;
+import com.winwin.orbital.team.TeamDto;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Everything the league pages need in one response. Fields that were not selected stay null and are left out.
+ */
+@ToString
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LeagueOverviewDto {
+
+    public static final Set<String> FIELDS =
+            Set.of("name", "scoringRule", "powerUps", "draftInfo", "maxPlayersSameClub", "teams", "status");
+
+    private Long leagueId;
+    private String name;
+    private ScoringRuleDto scoringRule;
+    private Map<String, Integer> powerUps;
+    private DraftInfoDto draftInfo;
+    private Long maxPlayersSameClub;
+    private List<TeamDto> teams;
+    private LeagueStatusDto status;
+
+}
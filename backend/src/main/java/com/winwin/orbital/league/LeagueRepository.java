@@ -14,6 +14,19 @@ public interface LeagueRepository extends JpaRepository<League, Long> {
 
     Optional<League> findByCode(String code);
 
+    List<League> findByStatus(String status);
+
+    @Query("SELECT DISTINCT l FROM League l " +
+            "LEFT JOIN FETCH l.teams t " +
+            "LEFT JOIN FETCH t.manager m " +
+            "LEFT JOIN FETCH m.user " +
+            "LEFT JOIN FETCH l.admin a " +
+            "LEFT JOIN FETCH a.user " +
+            "LEFT JOIN FETCH l.scoringRule " +
+            "LEFT JOIN FETCH l.powerUps " +
+            "WHERE l.id = :leagueId")
+    Optional<League> findOverviewById(@Param("leagueId") long leagueId);
+
     @Query("SELECT l FROM League l " +
             "WHERE l.draftStartTime <= :currentTime " +
             "AND l.draftStartTime > :previousTime " +
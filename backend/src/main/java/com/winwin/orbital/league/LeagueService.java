@@ -2,6 +2,7 @@ package com.winwin.orbital.league;
 
 import com.winwin.orbital.exception.*;
 import com.winwin.orbital.gameweek.GameweekComponent;
+import com.winwin.orbital.manager.CurrentManager;
 import com.winwin.orbital.manager.Manager;
 import com.winwin.orbital.manager.ManagerDto;
 import com.winwin.orbital.manager.ManagerRepository;
@@ -17,9 +18,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,96 +31,51 @@ public class LeagueService {
     private final LeagueRepository leagueRepository;
     private final ManagerRepository managerRepository;
     private final GameweekComponent gameweekComponent;
+    private final LeagueMembership leagueMembership;
 
     @Autowired
     public LeagueService(LeagueRepository leagueRepository,
                          ManagerRepository managerRepository,
-                         GameweekComponent gameweekComponent) {
+                         GameweekComponent gameweekComponent,
+                         LeagueMembership leagueMembership) {
         this.leagueRepository = leagueRepository;
         this.managerRepository = managerRepository;
         this.gameweekComponent = gameweekComponent;
+        this.leagueMembership = leagueMembership;
     }
 
     public String getLeagueName(Long leagueId, UserDetails userDetails) {
-        Manager currentUserManager = managerRepository.findByUserUsername(userDetails.getUsername())
-                .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
-
-        League league = leagueRepository.findById(leagueId)
-                .orElseThrow(() -> new LeagueNotFoundException("League not found."));
-
-        if (!isManagerInLeague(currentUserManager, league)) {
-            throw new AccessDeniedException("Current manager is not in the league.");
-        }
+        League league = findLeagueOfMember(leagueId, userDetails);
 
         return league.getName();
     }
 
     public ScoringRuleDto getScoringRule(Long leagueId, UserDetails userDetails) {
-        Manager currentUserManager = managerRepository.findByUserUsername(userDetails.getUsername())
-                .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
-
-        League league = leagueRepository.findById(leagueId)
-                .orElseThrow(() -> new LeagueNotFoundException("League not found."));
-
-        if (!isManagerInLeague(currentUserManager, league)) {
-            throw new AccessDeniedException("Current manager is not in the league.");
-        }
+        League league = findLeagueOfMember(leagueId, userDetails);
 
         return new ScoringRuleDto(league.getScoringRule());
     }
 
     public Map<String, Integer> getPowerUps(Long leagueId, UserDetails userDetails) {
-        Manager currentUserManager = managerRepository.findByUserUsername(userDetails.getUsername())
-                .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
-
-        League league = leagueRepository.findById(leagueId)
-                .orElseThrow(() -> new LeagueNotFoundException("League not found."));
-
-        if (!isManagerInLeague(currentUserManager, league)) {
-            throw new AccessDeniedException("Current manager is not in the league.");
-        }
+        League league = findLeagueOfMember(leagueId, userDetails);
 
         return league.getPowerUps();
     }
 
     public long getMaxPlayersSameClub(Long leagueId, UserDetails userDetails) {
-        Manager currentUserManager = managerRepository.findByUserUsername(userDetails.getUsername())
-                .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
-
-        League league = leagueRepository.findById(leagueId)
-                .orElseThrow(() -> new LeagueNotFoundException("League not found."));
-
-        if (!isManagerInLeague(currentUserManager, league)) {
-            throw new AccessDeniedException("Current manager is not in the league.");
-        }
+        League league = findLeagueOfMember(leagueId, userDetails);
 
         return league.getMaxNumberOfPlayersFromAClub();
     }
 
     public DraftInfoDto getDraftInfo(Long leagueId, UserDetails userDetails) {
-        Manager currentUserManager = managerRepository.findByUserUsername(userDetails.getUsername())
-                .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
-
-        League league = leagueRepository.findById(leagueId)
-                .orElseThrow(() -> new LeagueNotFoundException("League not found."));
-
-        if (!isManagerInLeague(currentUserManager, league)) {
-            throw new AccessDeniedException("Current manager is not in the league.");
-        }
+        League league = findLeagueOfMember(leagueId, userDetails);
 
         return new DraftInfoDto(league.getStatus(), league.getDraftStartTime(), new ManagerDto(league.getAdmin()));
     }
 
     public List<TeamDto> getTeamsInLeague(Long leagueId, UserDetails userDetails) {
-        Manager currentUserManager = managerRepository.findByUserUsername(userDetails.getUsername())
-                .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
-
-        League league = leagueRepository.findById(leagueId)
-                .orElseThrow(() -> new LeagueNotFoundException("League not found."));
-
-        if (!isManagerInLeague(currentUserManager, league)) {
-            throw new AccessDeniedException("Current manager is not in the league.");
-        }
+        League league = findLeagueOfMember(leagueId, userDetails);
 
         return league.getTeams().stream()
                 .map(TeamDto::new)
@@ -125,23 +83,68 @@ public class LeagueService {
     }
 
     public LeagueStatusDto getStatus(Long leagueId, UserDetails userDetails) {
-        Manager currentUserManager = managerRepository.findByUserUsername(userDetails.getUsername())
+        League league = findLeagueOfMember(leagueId, userDetails);
+
+        return new LeagueStatusDto(leagueId, league.getStatus()
+                , gameweekComponent.getCurrentGameweek(), gameweekComponent.getCurrentSeason());
+    }
+
+    /**
+     * Assembles the selected overview fields, or all of them when {@code fields} is empty, from a single query.
+     */
+    @Transactional(readOnly = true)
+    public LeagueOverviewDto getOverview(Long leagueId, Set<String> fields, UserDetails userDetails) {
+        for (String field : fields) {
+            if (!LeagueOverviewDto.FIELDS.contains(field)) {
+                throw new InvalidFieldSelectionException("Unknown league overview field: " + field);
+            }
+        }
+        Set<String> selected = fields.isEmpty() ? LeagueOverviewDto.FIELDS : fields;
+
+        long managerId = CurrentManager.findId(managerRepository, userDetails)
                 .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
 
-        League league = leagueRepository.findById(leagueId)
+        League league = leagueRepository.findOverviewById(leagueId)
                 .orElseThrow(() -> new LeagueNotFoundException("League not found."));
 
-        if (!isManagerInLeague(currentUserManager, league)) {
+        // The teams are already loaded, so membership is checked on them instead of another query
+        if (league.getTeams().stream().noneMatch(team -> team.getManager().getId() == managerId)) {
             throw new AccessDeniedException("Current manager is not in the league.");
         }
 
-        return new LeagueStatusDto(leagueId, league.getStatus()
-                , gameweekComponent.getCurrentGameweek(), gameweekComponent.getCurrentSeason());
+        LeagueOverviewDto overview = new LeagueOverviewDto();
+        overview.setLeagueId(league.getId());
+        if (selected.contains("name")) {
+            overview.setName(league.getName());
+        }
+        if (selected.contains("scoringRule") && league.getScoringRule() != null) {
+            overview.setScoringRule(new ScoringRuleDto(league.getScoringRule()));
+        }
+        if (selected.contains("powerUps") && league.getPowerUps() != null) {
+            overview.setPowerUps(new TreeMap<>(league.getPowerUps()));
+        }
+        if (selected.contains("draftInfo")) {
+            overview.setDraftInfo(new DraftInfoDto(league.getStatus(), league.getDraftStartTime(), new ManagerDto(league.getAdmin())));
+        }
+        if (selected.contains("maxPlayersSameClub")) {
+            overview.setMaxPlayersSameClub(league.getMaxNumberOfPlayersFromAClub());
+        }
+        if (selected.contains("teams")) {
+            overview.setTeams(league.getTeams().stream()
+                    .sorted(Comparator.comparingLong(Team::getId))
+                    .map(TeamDto::new)
+                    .collect(Collectors.toList()));
+        }
+        if (selected.contains("status")) {
+            overview.setStatus(new LeagueStatusDto(leagueId, league.getStatus(),
+                    gameweekComponent.getCurrentGameweek(), gameweekComponent.getCurrentSeason()));
+        }
+        return overview;
     }
 
     @Transactional
     public League createLeague(LeagueCreationRequestDto leagueCreationRequestDto, UserDetails userDetails) {
-        Manager manager = managerRepository.findByUserUsername(userDetails.getUsername())
+        Manager manager = CurrentManager.find(managerRepository, userDetails)
                 .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
 
         if (leagueCreationRequestDto.getTeamName().trim().isEmpty()) {
@@ -181,12 +184,14 @@ public class LeagueService {
         league.setAdmin(manager);
         league.setMaxNumberOfPlayersFromAClub(leagueCreationRequestDto.getMaxPlayersFromSameClub());
 
-        return leagueRepository.save(league);
+        League savedLeague = leagueRepository.save(league);
+        leagueMembership.invalidate(manager.getId(), savedLeague.getId());
+        return savedLeague;
     }
 
     @Transactional
     public League joinLeague(String code, String teamName, UserDetails userDetails) {
-        Manager manager = managerRepository.findByUserUsername(userDetails.getUsername())
+        Manager manager = CurrentManager.find(managerRepository, userDetails)
                 .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
 
         League league = leagueRepository.findByCode(code)
@@ -212,12 +217,14 @@ public class LeagueService {
         team.setName(teamName);
         league.getTeams().add(team);
 
-        return leagueRepository.save(league);
+        League savedLeague = leagueRepository.save(league);
+        leagueMembership.invalidate(manager.getId(), savedLeague.getId());
+        return savedLeague;
     }
 
     @Transactional
     public void submitDraftSettings(Long leagueId, DraftSettingsDto draftSettings, UserDetails userDetails) {
-        Manager currentUserManager = managerRepository.findByUserUsername(userDetails.getUsername())
+        Manager currentUserManager = CurrentManager.find(managerRepository, userDetails)
                 .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
 
         League league = leagueRepository.findById(leagueId)
@@ -246,6 +253,17 @@ public class LeagueService {
         leagueRepository.save(league);
     }
 
+    private League findLeagueOfMember(Long leagueId, UserDetails userDetails) {
+        long managerId = CurrentManager.findId(managerRepository, userDetails)
+                .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
+
+        League league = leagueRepository.findById(leagueId)
+                .orElseThrow(() -> new LeagueNotFoundException("League not found."));
+
+        leagueMembership.requireMember(managerId, leagueId);
+        return league;
+    }
+
     private boolean isManagerInLeague(Manager manager, League league) {
         return manager.getTeams().stream().anyMatch(team -> team.getLeague().equals(league));
     }
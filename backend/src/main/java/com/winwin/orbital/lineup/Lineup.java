@@ -17,6 +17,8 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "idx_lineup_team_season_gameweek_submitted_at",
+        columnList = "team_id, season, gameweek, submitted_at"))
 public class Lineup {
 
     @Id
@@ -1,8 +1,41 @@
 package com.winwin.orbital.lineup;
 
+import com.winwin.orbital.team.Team;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface LineupRepository extends JpaRepository<Lineup, Long> {
+
+    @Query("SELECT DISTINCT l FROM Lineup l " +
+            "LEFT JOIN FETCH l.startingPlayers " +
+            "LEFT JOIN FETCH l.substitutes " +
+            "LEFT JOIN FETCH l.captain " +
+            "LEFT JOIN FETCH l.viceCaptain " +
+            "JOIN FETCH l.team t " +
+            "JOIN FETCH t.league lg " +
+            "LEFT JOIN FETCH lg.scoringRule " +
+            "WHERE l.season = :season " +
+            "AND l.gameweek = :gameweek " +
+            "AND l.submittedAt = (SELECT MAX(l2.submittedAt) FROM Lineup l2 " +
+            "WHERE l2.team = l.team AND l2.season = l.season AND l2.gameweek = l.gameweek)")
+    List<Lineup> findEffectiveWithPlayersBySeasonAndGameweek(@Param("season") String season,
+                                                             @Param("gameweek") int gameweek);
+
+    Optional<Lineup> findFirstByTeamAndSeasonAndGameweekOrderBySubmittedAtDesc(Team team, String season, int gameweek);
+
+    @Query("SELECT l FROM Lineup l " +
+            "WHERE l.team = :team " +
+            "AND l.season = :season " +
+            "AND l.gameweek < :gameweek " +
+            "AND l.submittedAt = (SELECT MAX(l2.submittedAt) FROM Lineup l2 " +
+            "WHERE l2.team = l.team AND l2.season = l.season AND l2.gameweek = l.gameweek)")
+    List<Lineup> findEffectiveByTeamAndSeasonBefore(@Param("team") Team team,
+                                                    @Param("season") String season,
+                                                    @Param("gameweek") int gameweek);
 }
@@ -4,13 +4,14 @@ import com.winwin.orbital.exception.*;
 import com.winwin.orbital.gameweek.GameweekComponent;
 import com.winwin.orbital.league.League;
 import com.winwin.orbital.league.LeagueRepository;
+import com.winwin.orbital.manager.CurrentManager;
 import com.winwin.orbital.manager.Manager;
 import com.winwin.orbital.player.Player;
-import com.winwin.orbital.player.PlayerDto;
 import com.winwin.orbital.player.PlayerRepository;
 import com.winwin.orbital.playerperformance.PlayerPerformance;
 import com.winwin.orbital.playerperformance.PlayerPerformanceRepository;
 import com.winwin.orbital.playerperformance.PlayerPerformanceService;
+import com.winwin.orbital.powerupusage.PowerupUsageService;
 import com.winwin.orbital.team.Team;
 import com.winwin.orbital.team.TeamRepository;
 import com.winwin.orbital.manager.ManagerRepository;
@@ -22,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,6 +38,7 @@ public class LineupService {
     private final PlayerPerformanceService playerPerformanceService;
     private final LineupConverter lineupConverter;
     private final GameweekComponent gameweekComponent;
+    private final PowerupUsageService powerupUsageService;
 
     @Autowired
     public LineupService(ManagerRepository managerRepository,
@@ -46,7 +49,8 @@ public class LineupService {
                          PlayerPerformanceRepository playerPerformanceRepository,
                          PlayerPerformanceService playerPerformanceService,
                          LineupConverter lineupConverter,
-                         GameweekComponent gameweekComponent) {
+                         GameweekComponent gameweekComponent,
+                         PowerupUsageService powerupUsageService) {
         this.managerRepository = managerRepository;
         this.teamRepository = teamRepository;
         this.lineupRepository = lineupRepository;
@@ -56,10 +60,11 @@ public class LineupService {
         this.playerPerformanceService = playerPerformanceService;
         this.lineupConverter = lineupConverter;
         this.gameweekComponent = gameweekComponent;
+        this.powerupUsageService = powerupUsageService;
     }
 
     public LineupDto getMyLineupHistory(Long leagueId, int requestedGameweek, UserDetails userDetails) {
-        Manager currentUserManager = managerRepository.findByUserUsername(userDetails.getUsername())
+        Manager currentUserManager = CurrentManager.find(managerRepository, userDetails)
                 .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
 
         League league = leagueRepository.findById(leagueId)
@@ -68,8 +73,6 @@ public class LineupService {
         Team team = teamRepository.findByManagerAndLeague(currentUserManager, league)
                 .orElseThrow(() -> new AccessDeniedException("No team found for the current manager in the specified league."));
 
-        Set<Lineup> lineupHistory = team.getLineupHistory();
-
         int currentGameweek = gameweekComponent.getCurrentGameweek();
         String currentSeason = gameweekComponent.getCurrentSeason();
 
@@ -77,12 +80,7 @@ public class LineupService {
             throw new LineupNotFoundException("Lineup not found for given team and gameweek");
         }
 
-        List<Lineup> filteredLineups = lineupHistory.stream()
-                .filter(lineup -> lineup.getSeason().equals(currentSeason) && lineup.getGameweek() == requestedGameweek)
-                .toList();
-
-        Optional<Lineup> finalLineupOpt = filteredLineups.stream()
-                .max(Comparator.comparing(Lineup::getSubmittedAt));
+        Optional<Lineup> finalLineupOpt = findEffectiveLineup(team, currentSeason, requestedGameweek);
 
         if (finalLineupOpt.isEmpty()) {
             throw new LineupNotFoundException("Lineup not found for given team and gameweek");
@@ -93,7 +91,7 @@ public class LineupService {
     }
 
     public LineupDto getCurrentLineup(Long leagueId, UserDetails userDetails) {
-        Manager currentUserManager = managerRepository.findByUserUsername(userDetails.getUsername())
+        Manager currentUserManager = CurrentManager.find(managerRepository, userDetails)
                 .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
 
         League league = leagueRepository.findById(leagueId)
@@ -105,9 +103,7 @@ public class LineupService {
         int currentGameweek = gameweekComponent.getCurrentGameweek();
         String currentSeason = gameweekComponent.getCurrentSeason();
 
-        Optional<Lineup> currentLineupOpt = team.getLineupHistory().stream()
-                .filter(lineup -> lineup.getSeason().equals(currentSeason) && lineup.getGameweek() == currentGameweek)
-                .max(Comparator.comparing(Lineup::getSubmittedAt));
+        Optional<Lineup> currentLineupOpt = findEffectiveLineup(team, currentSeason, currentGameweek);
 
         if (currentLineupOpt.isPresent()) {
             return lineupConverter.toDto(currentLineupOpt.get());
@@ -118,7 +114,7 @@ public class LineupService {
 
     @Transactional
     public Lineup submitLineup(Long leagueId, LineupDto lineupDto, UserDetails userDetails) {
-        Manager currentUserManager = managerRepository.findByUserUsername(userDetails.getUsername())
+        Manager currentUserManager = CurrentManager.find(managerRepository, userDetails)
                 .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
 
         League league = leagueRepository.findById(leagueId)
@@ -146,68 +142,89 @@ public class LineupService {
         return lineupRepository.save(lineup);
     }
 
+    /**
+     * The lineup that counts for the gameweek, which is the last one the team submitted for it.
+     */
+    public Optional<Lineup> findEffectiveLineup(Team team, String season, int gameweek) {
+        return lineupRepository.findFirstByTeamAndSeasonAndGameweekOrderBySubmittedAtDesc(team, season, gameweek);
+    }
+
     public int calculatePoints(Lineup lineup) {
-        return calculatePointsForPlayers(lineup).values().stream()
+        return calculatePoints(lineup, loadPerformances(lineup), loadSubstitutes(lineup));
+    }
+
+    public int calculatePoints(Lineup lineup,
+                               Map<Long, PlayerPerformance> performances,
+                               Map<Long, Player> substitutePlayers) {
+        return calculatePointsForPlayers(lineup, performances, substitutePlayers).values().stream()
                 .mapToInt(Integer::intValue)
                 .sum();
     }
 
-    public boolean playedInGameweek(Player player, int gameweek, String season) {
-        Optional<PlayerPerformance> performanceOpt =
-                playerPerformanceRepository.findByPlayerAndGameweekAndSeason(player, gameweek, season);
-        if (performanceOpt.isPresent()) {
-            PlayerPerformance performance = performanceOpt.get();
-            return performance.getMinutesPlayed() != 0
-                    || performance.getRedCards() != 0
-                    || performance.getYellowCards() != 0;
-        } else {
-            return false;
+    public Map<Long, PlayerPerformance> loadPerformances(Lineup lineup) {
+        Set<Long> playerIds = lineup.getStartingPlayers().stream()
+                .map(Player::getId)
+                .collect(Collectors.toSet());
+        playerIds.addAll(lineup.getSubstitutes().values());
+
+        return findPerformances(playerIds, lineup.getGameweek(), lineup.getSeason());
+    }
+
+    public Map<Long, PlayerPerformance> findPerformances(Collection<Long> playerIds, int gameweek, String season) {
+        if (playerIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return playerPerformanceRepository.findByPlayerIdInAndGameweekAndSeason(playerIds, gameweek, season).stream()
+                .collect(Collectors.toMap(performance -> performance.getPlayer().getId(),
+                        performance -> performance,
+                        (performance1, performance2) -> performance1));
+    }
+
+    public Map<Long, Player> loadSubstitutes(Lineup lineup) {
+        return findPlayers(new HashSet<>(lineup.getSubstitutes().values()));
+    }
+
+    public Map<Long, Player> findPlayers(Collection<Long> playerIds) {
+        if (playerIds.isEmpty()) {
+            return new HashMap<>();
         }
+        return playerRepository.findAllById(playerIds).stream()
+                .collect(Collectors.toMap(Player::getId, player -> player));
     }
 
-    public Optional<Player> findSubstituteWithPosition(String position, Map<Integer, Long> substitutes) {
+    public boolean playedInGameweek(long playerId, Map<Long, PlayerPerformance> performances) {
+        PlayerPerformance performance = performances.get(playerId);
+        return performance != null && hasPlayed(performance);
+    }
+
+    private static boolean hasPlayed(PlayerPerformance performance) {
+        return performance.getMinutesPlayed() != 0
+                || performance.getRedCards() != 0
+                || performance.getYellowCards() != 0;
+    }
 
+    public Optional<Player> findSubstituteWithPosition(String position,
+                                                       Map<Integer, Long> substitutes,
+                                                       Map<Long, Player> substitutePlayers) {
         return substitutes.entrySet().stream()
                 .filter(entry -> {
-                    Optional<Player> playerOpt = playerRepository.findById(entry.getValue());
-                    return playerOpt.isPresent() && position.equals(playerOpt.get().getPosition());
+                    Player player = substitutePlayers.get(entry.getValue());
+                    return player != null && position.equals(player.getPosition());
                 })
                 .max(Map.Entry.comparingByKey())
-                .flatMap(entry -> playerRepository.findById(entry.getValue()));
+                .map(entry -> substitutePlayers.get(entry.getValue()));
     }
 
     private void validatePowerups(Team team, League league, LineupDto lineupDto) {
         Map<String, Integer> availablePowerups = league.getPowerUps();
-        int currentGameweek = gameweekComponent.getCurrentGameweek();
-        String currentSeason = gameweekComponent.getCurrentSeason();
-
-        Map<Integer, Lineup> latestLineupsByGameweek = team.getLineupHistory().stream()
-                .filter(lineup -> lineup.getSeason().equals(currentSeason) && lineup.getGameweek() < currentGameweek)
-                .collect(Collectors.toMap(
-                        Lineup::getGameweek,
-                        lineup -> lineup,
-                        (lineup1, lineup2) -> lineup1.getSubmittedAt().isAfter(lineup2.getSubmittedAt()) ? lineup1 : lineup2
-                ));
-
-        long powerupsUsedBBoost = latestLineupsByGameweek.values().stream()
-                .filter(lineup -> "bboost".equals(lineup.getPowerup()))
-                .count();
-
-        long powerupsUsedCx3 = latestLineupsByGameweek.values().stream()
-                .filter(lineup -> "cx3".equals(lineup.getPowerup()))
-                .count();
+        Map<String, Integer> usedPowerups = powerupUsageService.getUsedPowerups(team);
 
         String powerup = lineupDto.getPowerup();
         if (powerup != null && !"bboost".equals(powerup) && !"cx3".equals(powerup)) {
             throw new InvalidLineupException("Invalid powerup.");
         }
         if (powerup != null) {
-            int countUsed;
-            if ("bboost".equals(powerup)) {
-                countUsed = (int) powerupsUsedBBoost + 1;
-            } else {
-                countUsed = (int) powerupsUsedCx3 + 1;
-            }
+            int countUsed = usedPowerups.getOrDefault(powerup, 0) + 1;
 
             int availableCount = availablePowerups.getOrDefault(powerup, 0);
             if (countUsed > availableCount) {
@@ -262,20 +279,24 @@ public class LineupService {
     }
 
     public Set<Player> calculateFinalLineup(Lineup lineup) {
+        return calculateFinalLineup(lineup, loadPerformances(lineup), loadSubstitutes(lineup));
+    }
+
+    public Set<Player> calculateFinalLineup(Lineup lineup,
+                                            Map<Long, PlayerPerformance> performances,
+                                            Map<Long, Player> substitutePlayers) {
         Set<Player> finalLineup = new HashSet<>(lineup.getStartingPlayers());
-        Map<Integer, Long> substitutes = lineup.getSubstitutes();
-        int gameweek = lineup.getGameweek();
-        String season = lineup.getSeason();
+        Map<Integer, Long> substitutes = new TreeMap<>(lineup.getSubstitutes());
 
         Set<Player> playersWhoDidNotPlay = finalLineup.stream()
-                .filter(player -> !playedInGameweek(player, gameweek, season))
+                .filter(player -> !playedInGameweek(player.getId(), performances))
                 .collect(Collectors.toSet());
 
         finalLineup.removeAll(playersWhoDidNotPlay);
 
         // Attempt to substitute goalkeeper if not playing
         if (finalLineup.stream().noneMatch(player -> "goalkeeper".equals(player.getPosition()))) {
-            Optional<Player> substituteGoalkeeper = findSubstituteWithPosition("goalkeeper", substitutes);
+            Optional<Player> substituteGoalkeeper = findSubstituteWithPosition("goalkeeper", substitutes, substitutePlayers);
             substituteGoalkeeper.ifPresent(substitute -> {
                 finalLineup.add(substitute);
                 substitutes.remove(substitutes.entrySet().stream()
@@ -290,7 +311,7 @@ public class LineupService {
         if (defendersPlaying < 3) {
             int neededDefenders = (int) (3 - defendersPlaying);
             for (int i = 0; i < neededDefenders; i++) {
-                Optional<Player> substituteDefender = findSubstituteWithPosition("defender", substitutes);
+                Optional<Player> substituteDefender = findSubstituteWithPosition("defender", substitutes, substitutePlayers);
                 substituteDefender.ifPresent(substitute -> {
                     finalLineup.add(substitute);
                     substitutes.remove(substitutes.entrySet().stream()
@@ -304,7 +325,7 @@ public class LineupService {
         // Attempt to substitute forward if less than 1 is playing
         long forwardsPlaying = finalLineup.stream().filter(player -> "forward".equals(player.getPosition())).count();
         if (forwardsPlaying < 1) {
-            Optional<Player> substituteForward = findSubstituteWithPosition("forward", substitutes);
+            Optional<Player> substituteForward = findSubstituteWithPosition("forward", substitutes, substitutePlayers);
             substituteForward.ifPresent(substitute -> {
                 finalLineup.add(substitute);
                 substitutes.remove(substitutes.entrySet().stream()
@@ -320,44 +341,58 @@ public class LineupService {
                 break;
             }
 
-            playerRepository.findById(entry.getValue()).ifPresent(substitute -> {
-                if (playedInGameweek(substitute, gameweek, season)) {
-                    finalLineup.add(substitute);
-                    playersWhoDidNotPlay.remove(playersWhoDidNotPlay.iterator().next());
-                }
-            });
+            Player substitute = substitutePlayers.get(entry.getValue());
+            if (substitute != null && playedInGameweek(substitute.getId(), performances)) {
+                finalLineup.add(substitute);
+                playersWhoDidNotPlay.remove(playersWhoDidNotPlay.iterator().next());
+            }
         }
 
         return finalLineup;
     }
 
     public Map<Long, Integer> calculatePointsForPlayers(Lineup lineup) {
+        return calculatePointsForPlayers(lineup, loadPerformances(lineup), loadSubstitutes(lineup));
+    }
+
+    public Map<Long, Integer> calculatePointsForPlayers(Lineup lineup,
+                                                        Map<Long, PlayerPerformance> performances,
+                                                        Map<Long, Player> substitutePlayers) {
+        League league = lineup.getTeam().getLeague();
+        return calculatePointsForPlayers(lineup, performances, substitutePlayers,
+                performance -> playerPerformanceService.calculatePointsInLeague(performance, league));
+    }
+
+    /**
+     * Same as above, but each performance's points in the lineup's league come from {@code performancePoints},
+     * so callers that scored a whole gameweek up front can reuse those points.
+     */
+    public Map<Long, Integer> calculatePointsForPlayers(Lineup lineup,
+                                                        Map<Long, PlayerPerformance> performances,
+                                                        Map<Long, Player> substitutePlayers,
+                                                        ToIntFunction<PlayerPerformance> performancePoints) {
         Map<Long, Integer> playerPointsMap = new HashMap<>();
 
         Set<Player> allPlayers = new HashSet<>(lineup.getStartingPlayers());
         allPlayers.forEach(player -> playerPointsMap.put(player.getId(), 0));
         lineup.getSubstitutes().values().forEach(substituteId -> {
-            Optional<Player> substituteOpt = playerRepository.findById(substituteId);
-            substituteOpt.ifPresent(substitute -> {
+            Player substitute = substitutePlayers.get(substituteId);
+            if (substitute != null) {
                 playerPointsMap.put(substitute.getId(), 0);
                 allPlayers.add(substitute);
-            });
+            }
         });
 
-        League league = lineup.getTeam().getLeague();
-        int gameweek = lineup.getGameweek();
-        String season = lineup.getSeason();
         String powerup = lineup.getPowerup();
 
-        Set<Player> finalLineup = calculateFinalLineup(lineup);
+        Set<Player> finalLineup = calculateFinalLineup(lineup, performances, substitutePlayers);
         finalLineup.forEach(player -> {
             long playerId = player.getId();
-            Optional<PlayerPerformance> performanceOpt =
-                    playerPerformanceRepository.findByPlayerAndGameweekAndSeason(player, gameweek, season);
-            performanceOpt.ifPresent(performance -> {
-                int playerPoints = playerPerformanceService.calculatePointsInLeague(performance, league);
+            PlayerPerformance performance = performances.get(playerId);
+            if (performance != null) {
+                int playerPoints = performancePoints.applyAsInt(performance);
                 playerPointsMap.put(playerId, playerPointsMap.get(playerId) + playerPoints);
-            });
+            }
         });
 
         Player captain = lineup.getCaptain();
@@ -379,72 +414,14 @@ public class LineupService {
         if ("bboost".equals(powerup)) {
             allPlayers.stream()
                     .filter(player -> !finalLineup.contains(player))
+                    .filter(player -> playedInGameweek(player.getId(), performances))
                     .forEach(player -> {
-                        if (playedInGameweek(player, gameweek, season)) {
-                            Optional<PlayerPerformance> performanceOpt =
-                                    playerPerformanceRepository.findByPlayerAndGameweekAndSeason(player, gameweek, season);
-                            performanceOpt.ifPresent(performance -> {
-                                int playerPoints = playerPerformanceService.calculatePointsInLeague(performance, league);
-                                playerPointsMap.put(player.getId(), playerPoints);
-                            });
-                        }
+                        int playerPoints = performancePoints.applyAsInt(performances.get(player.getId()));
+                        playerPointsMap.put(player.getId(), playerPoints);
                     });
         }
 
         return playerPointsMap;
     }
 
-    public List<PastLineupDto> getPastLineups(Team team) {
-        int currentGameweek = gameweekComponent.getCurrentGameweek();
-        String currentSeason = gameweekComponent.getCurrentSeason();
-
-        List<PastLineupDto> pastLineups = new ArrayList<>();
-        for (int gw = 1; gw < currentGameweek; gw++) {
-            int requestedGameweek = gw;
-            Optional<Lineup> finalLineupOpt = team.getLineupHistory().stream()
-                    .filter(lineup -> lineup.getSeason().equals(currentSeason) && lineup.getGameweek() == requestedGameweek)
-                    .max(Comparator.comparing(Lineup::getSubmittedAt));
-
-            finalLineupOpt.ifPresent(lineup -> {
-                PastLineupDto dto = new PastLineupDto();
-                dto.setId(lineup.getId());
-                dto.setTeamId(team.getId());
-                dto.setGameweek(lineup.getGameweek());
-                dto.setSeason(lineup.getSeason());
-                dto.setStartingPlayers(lineup.getStartingPlayers().stream()
-                        .map(PlayerDto::new)
-                        .collect(Collectors.toSet()));
-                dto.setCaptainId(lineup.getCaptain().getId());
-                dto.setViceCaptainId(lineup.getViceCaptain().getId());
-                dto.setSubstitutes(lineup.getSubstitutes().entrySet().stream()
-                        .collect(Collectors.toMap(
-                                Map.Entry::getKey,
-                                entry -> new PlayerDto(playerRepository.findById(entry.getValue())
-                                        .orElseThrow(() -> new PlayerNotFoundException("Player not found.")))
-                        )));
-                dto.setPowerup(lineup.getPowerup());
-                dto.setPoints(calculatePoints(lineup));
-
-                Map<Long, Integer> playerPointsMap = calculatePointsForPlayers(lineup);
-                dto.setPlayerPoints(playerPointsMap);
-
-                Map<Long, Boolean> playerToPlayedOrNotMap = new HashMap<>();
-                playerPointsMap.forEach((playerId, points) -> {
-                    boolean played = playedInGameweek(
-                            playerRepository.findById(playerId)
-                                    .orElseThrow(() -> new PlayerNotFoundException("Player not found.")),
-                            lineup.getGameweek(),
-                            lineup.getSeason()
-                    );
-                    playerToPlayedOrNotMap.put(playerId, played);
-                });
-                dto.setPlayerToPlayedOrNot(playerToPlayedOrNotMap);
-
-                pastLineups.add(dto);
-            });
-        }
-
-        return pastLineups;
-    }
-
 }
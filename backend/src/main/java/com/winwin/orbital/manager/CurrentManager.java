@@ -0,0 +1,34 @@
+package com.winwin.orbital.manager;
+
+import com.winwin.orbital.userdetails.JwtPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Optional;
+
+/**
+ * Finds the manager of the authenticated user: by the manager id in the token when there is one, otherwise by
+ * username.
+ */
+public final class CurrentManager {
+
+    private CurrentManager() {
+    }
+
+    public static Optional<Manager> find(ManagerRepository managerRepository, UserDetails userDetails) {
+        if (userDetails instanceof JwtPrincipal principal && principal.getManagerId() != null) {
+            return managerRepository.findById(principal.getManagerId());
+        }
+        return managerRepository.findByUserUsername(userDetails.getUsername());
+    }
+
+    /**
+     * Like {@link #find}, but needs no query when the token carries the manager id.
+     */
+    public static Optional<Long> findId(ManagerRepository managerRepository, UserDetails userDetails) {
+        if (userDetails instanceof JwtPrincipal principal && principal.getManagerId() != null) {
+            return Optional.of(principal.getManagerId());
+        }
+        return managerRepository.findByUserUsername(userDetails.getUsername()).map(Manager::getId);
+    }
+
+}
@@ -21,8 +21,7 @@ public class ManagerService {
     }
 
     public List<LeagueDto> getCurrentUserLeagues(UserDetails userDetails) {
-        String username = userDetails.getUsername();
-        return managerRepository.findByUserUsername(username)
+        return CurrentManager.find(managerRepository, userDetails)
                 .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."))
                 .getTeams().stream()
                 .map(Team::getLeague)
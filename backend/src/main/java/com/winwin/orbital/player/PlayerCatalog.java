@@ -0,0 +1,98 @@
+package com.winwin.orbital.player;
+
+import com.winwin.orbital.club.ClubRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Read-only copy of every player, shared by the whole process. Players are compact records and each club is
+ * held once, so drafts and DTO mapping can read player data without going through the persistence context.
+ * The catalog reloads on a schedule; anything that writes players or clubs, which today is only the startup
+ * seeding in DataInitializer, calls {@link #invalidate()} to reload it on next use.
+ */
+@Component
+public class PlayerCatalog {
+
+    private final PlayerRepository playerRepository;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public PlayerCatalog(PlayerRepository playerRepository) {
+        this.playerRepository = playerRepository;
+    }
+
+    public Optional<PlayerRecord> findById(long playerId) {
+        return Optional.ofNullable(snapshot().playersById().get(playerId));
+    }
+
+    public List<PlayerRecord> getAvailablePlayers() {
+        return snapshot().availablePlayers();
+    }
+
+    public PlayerDto toDto(Player player) {
+        PlayerRecord playerRecord = snapshot().playersById().get(player.getId());
+        return playerRecord != null ? new PlayerDto(playerRecord) : new PlayerDto(player);
+    }
+
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    @Scheduled(fixedDelayString = "${player.catalog.refresh-interval-ms:600000}",
+            initialDelayString = "${player.catalog.refresh-interval-ms:600000}")
+    public void refresh() {
+        snapshot = load();
+    }
+
+    /**
+     * Converts players to records, sharing one record per club.
+     */
+    public static List<PlayerRecord> toRecords(Collection<Player> players) {
+        Map<Long, ClubRecord> clubs = new HashMap<>();
+        List<PlayerRecord> playerRecords = new ArrayList<>(players.size());
+        for (Player player : players) {
+            ClubRecord club = player.getClub() != null
+                    ? clubs.computeIfAbsent(player.getClub().getId(), id -> ClubRecord.of(player.getClub()))
+                    : null;
+            String position = player.getPosition() != null ? player.getPosition().intern() : null;
+            playerRecords.add(new PlayerRecord(player.getId(), player.getFirstName(), player.getLastName(),
+                    position, player.isAvailable(), club));
+        }
+        return playerRecords;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot load() {
+        List<PlayerRecord> playerRecords = toRecords(playerRepository.findAllWithClub());
+        playerRecords.sort(Comparator.comparingLong(PlayerRecord::id));
+
+        Map<Long, PlayerRecord> playersById = new HashMap<>(playerRecords.size() * 2);
+        List<PlayerRecord> availablePlayers = new ArrayList<>();
+        for (PlayerRecord playerRecord : playerRecords) {
+            playersById.put(playerRecord.id(), playerRecord);
+            if (playerRecord.available()) {
+                availablePlayers.add(playerRecord);
+            }
+        }
+        return new Snapshot(Collections.unmodifiableMap(playersById), List.copyOf(availablePlayers));
+    }
+
+    private record Snapshot(Map<Long, PlayerRecord> playersById, List<PlayerRecord> availablePlayers) {
+    }
+}
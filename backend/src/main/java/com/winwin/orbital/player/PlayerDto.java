@@ -28,4 +28,13 @@ public class PlayerDto {
         this.clubShortName = player.getClub().getShortName();
     }
 
+    public PlayerDto(PlayerRecord player) {
+        this.id = player.id();
+        this.firstName = player.firstName();
+        this.lastName = player.lastName();
+        this.position = player.position();
+        this.clubName = player.club().name();
+        this.clubShortName = player.club().shortName();
+    }
+
 }
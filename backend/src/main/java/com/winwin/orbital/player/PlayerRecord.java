@@ -0,0 +1,11 @@
+package com.winwin.orbital.player;
+
+import com.winwin.orbital.club.ClubRecord;
+
+public record PlayerRecord(long id,
+                           String firstName,
+                           String lastName,
+                           String position,
+                           boolean available,
+                           ClubRecord club) {
+}
@@ -1,6 +1,7 @@
 package com.winwin.orbital.player;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -8,4 +9,7 @@ import java.util.List;
 @Repository
 public interface PlayerRepository extends JpaRepository<Player, Long> {
     List<Player> findByIsAvailableTrue();
+
+    @Query("SELECT p FROM Player p LEFT JOIN FETCH p.club")
+    List<Player> findAllWithClub();
 }
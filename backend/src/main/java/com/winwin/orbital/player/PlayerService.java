@@ -10,13 +10,21 @@ import java.util.Optional;
 public class PlayerService {
 
     private final PlayerRepository playerRepository;
+    private final PlayerCatalog playerCatalog;
 
     @Autowired
-    public PlayerService(PlayerRepository playerRepository) {
+    public PlayerService(PlayerRepository playerRepository, PlayerCatalog playerCatalog) {
         this.playerRepository = playerRepository;
+        this.playerCatalog = playerCatalog;
     }
 
     public PlayerDto getPlayerById(long playerId) {
+        Optional<PlayerRecord> playerRecord = playerCatalog.findById(playerId);
+        if (playerRecord.isPresent()) {
+            return new PlayerDto(playerRecord.get());
+        }
+
+        // Not in the catalog until its next refresh
         Optional<Player> playerOpt = playerRepository.findById(playerId);
         if (playerOpt.isPresent()) {
             return new PlayerDto(playerOpt.get());
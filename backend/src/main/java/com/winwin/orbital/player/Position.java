@@ -0,0 +1,39 @@
+package com.winwin.orbital.player;
+
+public enum Position {
+    GOALKEEPER(2),
+    DEFENDER(5),
+    MIDFIELDER(5),
+    FORWARD(3);
+
+    public static final int COUNT = values().length;
+
+    private final int squadLimit;
+
+    Position(int squadLimit) {
+        this.squadLimit = squadLimit;
+    }
+
+    /**
+     * The number of players of this position in a full 15-player squad.
+     */
+    public int getSquadLimit() {
+        return squadLimit;
+    }
+
+    /**
+     * Resolves the position stored on {@link Player#getPosition()}, or null if it is not recognised.
+     */
+    public static Position fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        return switch (name) {
+            case "goalkeeper" -> GOALKEEPER;
+            case "defender" -> DEFENDER;
+            case "midfielder" -> MIDFIELDER;
+            case "forward" -> FORWARD;
+            default -> null;
+        };
+    }
+}
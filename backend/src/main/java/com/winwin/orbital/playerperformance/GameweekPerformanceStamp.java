@@ -0,0 +1,20 @@
+package com.winwin.orbital.playerperformance;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Summary of the PlayerPerformance rows recorded for one gameweek. Any insert, update or
+ * delete of those rows changes either the row count or the latest update time, so scores
+ * derived from the gameweek can compare stamps to detect that they are out of date.
+ */
+public record GameweekPerformanceStamp(Integer gameweek, Long performanceCount, LocalDateTime lastUpdatedAt) {
+
+    public static GameweekPerformanceStamp empty(int gameweek) {
+        return new GameweekPerformanceStamp(gameweek, 0L, null);
+    }
+
+    public boolean matches(long performanceCount, LocalDateTime lastUpdatedAt) {
+        return this.performanceCount == performanceCount && Objects.equals(this.lastUpdatedAt, lastUpdatedAt);
+    }
+}
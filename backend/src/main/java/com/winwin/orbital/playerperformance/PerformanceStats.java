@@ -0,0 +1,74 @@
+package com.winwin.orbital.playerperformance;
+
+import com.winwin.orbital.player.Position;
+
+import java.util.List;
+
+/**
+ * Flattens PlayerPerformance rows into primitive arrays for the scoring kernel in
+ * {@link com.winwin.orbital.scoringrule.CompiledScoringRule}. Each performance occupies
+ * {@link #STAT_COUNT} consecutive ints holding the already bucketed stats that the
+ * scoring rule multiplies, so scoring is a dot product with one coefficient row.
+ */
+public final class PerformanceStats {
+
+    public static final int PLAYED_UNDER_60 = 0;
+    public static final int PLAYED_60_OR_MORE = 1;
+    public static final int GOALS = 2;
+    public static final int ASSISTS = 3;
+    public static final int CLEAN_SHEET = 4;
+    public static final int SAVES_PER_3 = 5;
+    public static final int PENALTIES_SAVED = 6;
+    public static final int PENALTIES_MISSED = 7;
+    public static final int GOALS_CONCEDED_PER_2 = 8;
+    public static final int YELLOW_CARDS = 9;
+    public static final int RED_CARDS = 10;
+    public static final int OWN_GOALS = 11;
+    public static final int STAT_COUNT = 12;
+
+    /** Position slot used for players whose position is not recognised. */
+    public static final int UNKNOWN_POSITION = Position.COUNT;
+
+    private PerformanceStats() {
+    }
+
+    public static int positionIndex(Position position) {
+        return position == null ? UNKNOWN_POSITION : position.ordinal();
+    }
+
+    public static void write(PlayerPerformance performance, int[] stats, int offset) {
+        int minutesPlayed = performance.getMinutesPlayed();
+        stats[offset + PLAYED_UNDER_60] = minutesPlayed > 0 && minutesPlayed < 60 ? 1 : 0;
+        stats[offset + PLAYED_60_OR_MORE] = minutesPlayed >= 60 ? 1 : 0;
+        stats[offset + GOALS] = performance.getGoalsScored();
+        stats[offset + ASSISTS] = performance.getAssists();
+        stats[offset + CLEAN_SHEET] = performance.getCleanSheet() > 0 ? 1 : 0;
+        stats[offset + SAVES_PER_3] = performance.getSaves() / 3;
+        stats[offset + PENALTIES_SAVED] = performance.getPenaltiesSaved();
+        stats[offset + PENALTIES_MISSED] = performance.getPenaltiesMissed();
+        stats[offset + GOALS_CONCEDED_PER_2] = performance.getGoalsConceded() / 2;
+        stats[offset + YELLOW_CARDS] = performance.getYellowCards();
+        stats[offset + RED_CARDS] = performance.getRedCards();
+        stats[offset + OWN_GOALS] = performance.getOwnGoals();
+    }
+
+    /**
+     * Packs a gameweek's performances once so that it can be scored for any number of leagues.
+     */
+    public static Packed pack(List<PlayerPerformance> performances) {
+        int size = performances.size();
+        long[] playerIds = new long[size];
+        int[] positions = new int[size];
+        int[] stats = new int[size * STAT_COUNT];
+        for (int i = 0; i < size; i++) {
+            PlayerPerformance performance = performances.get(i);
+            playerIds[i] = performance.getPlayer().getId();
+            positions[i] = positionIndex(Position.fromName(performance.getPlayer().getPosition()));
+            write(performance, stats, i * STAT_COUNT);
+        }
+        return new Packed(size, playerIds, positions, stats);
+    }
+
+    public record Packed(int size, long[] playerIds, int[] positions, int[] stats) {
+    }
+}
@@ -3,6 +3,9 @@ package com.winwin.orbital.playerperformance;
 import com.winwin.orbital.player.Player;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 @Getter
 @Setter
@@ -11,6 +14,8 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "idx_player_performance_season_gameweek_player",
+        columnList = "season, gameweek, player_id"))
 public class PlayerPerformance {
 
     @Id
@@ -36,6 +41,10 @@ public class PlayerPerformance {
     private int redCards;
     private int ownGoals;
 
+    @UpdateTimestamp
+    @EqualsAndHashCode.Exclude
+    private LocalDateTime updatedAt;
+
     public PlayerPerformance(Player player,
                              int gameweek,
                              String season,
@@ -1,12 +1,26 @@
 package com.winwin.orbital.playerperformance;
 
-import com.winwin.orbital.player.Player;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface PlayerPerformanceRepository extends JpaRepository<PlayerPerformance, Long> {
-    Optional<PlayerPerformance> findByPlayerAndGameweekAndSeason(Player player, int gameweek, String season);
+    List<PlayerPerformance> findByPlayerIdInAndGameweekAndSeason(Collection<Long> playerIds, int gameweek, String season);
+
+    @Query("SELECT p FROM PlayerPerformance p JOIN FETCH p.player " +
+            "WHERE p.season = :season AND p.gameweek = :gameweek")
+    List<PlayerPerformance> findWithPlayerBySeasonAndGameweek(@Param("season") String season,
+                                                              @Param("gameweek") int gameweek);
+
+    @Query("SELECT new com.winwin.orbital.playerperformance.GameweekPerformanceStamp(" +
+            "p.gameweek, COUNT(p), MAX(p.updatedAt)) " +
+            "FROM PlayerPerformance p " +
+            "WHERE p.season = :season " +
+            "GROUP BY p.gameweek")
+    List<GameweekPerformanceStamp> findGameweekStampsBySeason(@Param("season") String season);
 }
@@ -1,60 +1,43 @@
 package com.winwin.orbital.playerperformance;
 
 import com.winwin.orbital.league.League;
+import com.winwin.orbital.player.Position;
+import com.winwin.orbital.scoringrule.CompiledScoringRule;
 import com.winwin.orbital.scoringrule.ScoringRule;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Service
 public class PlayerPerformanceService {
 
-    public int calculatePointsInLeague(PlayerPerformance performance, League league) {
-        ScoringRule scoringRule = league.getScoringRule();
-        int points = 0;
-        String position = performance.getPlayer().getPosition();
-
-        if (performance.getMinutesPlayed() > 0 && performance.getMinutesPlayed() < 60) {
-            points += scoringRule.getFor60Mins();
-        } else if (performance.getMinutesPlayed() >= 60) {
-            points += scoringRule.getForOver60Mins();
-        }
+    private final Map<Long, CompiledScoringRule> compiledScoringRules = new ConcurrentHashMap<>();
 
-        if (position.equals("goalkeeper") || position.equals("defender")) {
-            points += performance.getGoalsScored() * scoringRule.getForGkDfGoal();
-        } else if (position.equals("midfielder")) {
-            points += performance.getGoalsScored() * scoringRule.getForMdGoal();
-        } else if (position.equals("forward")) {
-            points += performance.getGoalsScored() * scoringRule.getForFwGoal();
-        }
-
-        points += performance.getAssists() * scoringRule.getForAssist();
-
-        if (position.equals("goalkeeper") || position.equals("defender")) {
-            if (performance.getCleanSheet() > 0) {
-                points += scoringRule.getForGkDfCleanSheet();
-            }
-        } else if (position.equals("midfielder")) {
-            if (performance.getCleanSheet() > 0) {
-                points += scoringRule.getForMdCleanSheet();
-            }
-        }
-
-        if (position.equals("goalkeeper")) {
-            points += (performance.getSaves() / 3) * scoringRule.getFor3GkSaves();
-        }
-
-        points += performance.getPenaltiesSaved() * scoringRule.getForPkSaved();
+    public int calculatePointsInLeague(PlayerPerformance performance, League league) {
+        Position position = Position.fromName(performance.getPlayer().getPosition());
+        return getCompiledScoringRule(league).score(position, performance);
+    }
 
-        points += performance.getPenaltiesMissed() * scoringRule.getForPkMissed();
+    public int[] calculateAllPointsInLeague(PerformanceStats.Packed performances, League league) {
+        int[] points = new int[performances.size()];
+        getCompiledScoringRule(league).scoreAll(performances, points);
+        return points;
+    }
 
-        if (position.equals("goalkeeper") || position.equals("defender")) {
-            points += (performance.getGoalsConceded() / 2) * scoringRule.getFor2GoalsConceded();
+    /**
+     * Returns the league's scoring rule compiled into a coefficient table. Rules are compiled once per
+     * league and version, so an edited rule is recompiled the first time it is used.
+     */
+    public CompiledScoringRule getCompiledScoringRule(League league) {
+        ScoringRule scoringRule = league.getScoringRule();
+        CompiledScoringRule compiledScoringRule = compiledScoringRules.get(league.getId());
+        if (compiledScoringRule == null || compiledScoringRule.getVersion() != scoringRule.getVersion()) {
+            compiledScoringRule = compiledScoringRules.compute(league.getId(), (leagueId, compiled) ->
+                    compiled != null && compiled.getVersion() == scoringRule.getVersion()
+                            ? compiled
+                            : CompiledScoringRule.compile(scoringRule));
         }
-
-        points -= performance.getYellowCards() * scoringRule.getForYellowCard();
-        points -= performance.getRedCards() * scoringRule.getForRedCard();
-
-        points -= performance.getOwnGoals() * scoringRule.getForOwnGoal();
-
-        return points;
+        return compiledScoringRule;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package com.winwin.orbital.powerupusage;
+
+import com.winwin.orbital.team.Team;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * How many times a team has used each powerup in a season, counted over the gameweeks up to and including
+ * {@code lockedThroughGameweek}. A gameweek is counted once it is over, using the lineup that counts for it.
+ */
+@ToString
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@Entity
+@Table(name = "powerup_usage", uniqueConstraints = @UniqueConstraint(columnNames = {"team_id", "season"}))
+public class PowerupUsage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "team_id", nullable = false)
+    @ToString.Exclude
+    private Team team;
+
+    private String season;
+
+    @EqualsAndHashCode.Exclude
+    private int lockedThroughGameweek;
+
+    @ElementCollection
+    @CollectionTable(name = "powerup_usage_count", joinColumns = @JoinColumn(name = "powerup_usage_id"))
+    @MapKeyColumn(name = "powerup")
+    @Column(name = "used")
+    @EqualsAndHashCode.Exclude
+    private Map<String, Integer> used = new HashMap<>();
+
+    @Version
+    @EqualsAndHashCode.Exclude
+    private long version;
+
+    public PowerupUsage(Team team, String season) {
+        this.team = team;
+        this.season = season;
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.winwin.orbital.powerupusage;
+
+import com.winwin.orbital.team.Team;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PowerupUsageRepository extends JpaRepository<PowerupUsage, Long> {
+    Optional<PowerupUsage> findByTeamAndSeason(Team team, String season);
+
+    @Query("SELECT DISTINCT u FROM PowerupUsage u LEFT JOIN FETCH u.used WHERE u.season = :season")
+    List<PowerupUsage> findWithCountsBySeason(@Param("season") String season);
+}
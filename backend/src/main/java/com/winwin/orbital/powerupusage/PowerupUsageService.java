@@ -0,0 +1,154 @@
+package com.winwin.orbital.powerupusage;
+
+import com.winwin.orbital.gameweek.GameweekComponent;
+import com.winwin.orbital.lineup.Lineup;
+import com.winwin.orbital.lineup.LineupRepository;
+import com.winwin.orbital.team.Team;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps each team's powerup usage counters. The counters are stored per team and season and only move forward
+ * when a gameweek ends: its effective lineup is locked and added to them in one transaction. Reads are served
+ * from memory until the current gameweek changes. Locking on read runs in its own transaction, and when another
+ * request locks the same team first the counters it saved are read back instead. Once
+ * {@code powerup.usage.cache.max-size} teams are cached, entries from earlier gameweeks are purged and further
+ * teams are read without being cached.
+ */
+@Service
+public class PowerupUsageService {
+
+    private final PowerupUsageRepository powerupUsageRepository;
+    private final LineupRepository lineupRepository;
+    private final GameweekComponent gameweekComponent;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxSize;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter lockConflicts;
+
+    @Autowired
+    public PowerupUsageService(PowerupUsageRepository powerupUsageRepository,
+                               LineupRepository lineupRepository,
+                               GameweekComponent gameweekComponent,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${powerup.usage.cache.max-size:10000}") int maxSize) {
+        this.powerupUsageRepository = powerupUsageRepository;
+        this.lineupRepository = lineupRepository;
+        this.gameweekComponent = gameweekComponent;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxSize = maxSize;
+        this.hits = meterRegistry.counter("powerup.usage.cache.hits");
+        this.misses = meterRegistry.counter("powerup.usage.cache.misses");
+        this.lockConflicts = meterRegistry.counter("powerup.usage.lock.conflicts");
+        meterRegistry.gauge("powerup.usage.cache.size", entries, Map::size);
+    }
+
+    /**
+     * How many times the team has used each powerup in the finished gameweeks of the current season.
+     */
+    public Map<String, Integer> getUsedPowerups(Team team) {
+        String season = gameweekComponent.getCurrentSeason();
+        int lastFinishedGameweek = gameweekComponent.getCurrentGameweek() - 1;
+        Key key = new Key(team.getId(), season);
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.lockedThroughGameweek() == lastFinishedGameweek) {
+            hits.increment();
+            return entry.used();
+        }
+        misses.increment();
+
+        Map<String, Integer> used;
+        try {
+            used = readLocked(team, season, lastFinishedGameweek);
+        } catch (DataIntegrityViolationException | ObjectOptimisticLockingFailureException e) {
+            lockConflicts.increment();
+            used = readLocked(team, season, lastFinishedGameweek);
+        }
+
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(cached -> cached.lockedThroughGameweek() != lastFinishedGameweek);
+        }
+        if (entries.size() < maxSize) {
+            entries.put(key, new Entry(lastFinishedGameweek, used));
+        }
+        return used;
+    }
+
+    private Map<String, Integer> readLocked(Team team, String season, int gameweek) {
+        return transactionTemplate.execute(status -> Map.copyOf(lockThrough(team, season, gameweek).getUsed()));
+    }
+
+    /**
+     * Adds the effective lineups of the gameweeks after the team's last locked one, up to and including
+     * {@code gameweek}, to its counters. Must run inside a transaction.
+     */
+    public PowerupUsage lockThrough(Team team, String season, int gameweek) {
+        PowerupUsage usage = powerupUsageRepository.findByTeamAndSeason(team, season)
+                .orElseGet(() -> new PowerupUsage(team, season));
+        if (usage.getLockedThroughGameweek() >= gameweek) {
+            return usage;
+        }
+
+        int lockedThroughGameweek = usage.getLockedThroughGameweek();
+        lineupRepository.findEffectiveByTeamAndSeasonBefore(team, season, gameweek + 1).stream()
+                .filter(lineup -> lineup.getGameweek() > lockedThroughGameweek && lineup.getPowerup() != null)
+                .map(Lineup::getPowerup)
+                .forEach(powerup -> usage.getUsed().merge(powerup, 1, Integer::sum));
+        usage.setLockedThroughGameweek(gameweek);
+        return powerupUsageRepository.save(usage);
+    }
+
+    /**
+     * Locks one finished gameweek for every given team, adding the powerup of each team's effective lineup in
+     * {@code lineupsByTeam}. Teams already locked past the gameweek are left alone, and teams that missed
+     * earlier gameweeks are caught up first. Must run inside a transaction.
+     */
+    public void lockGameweek(Collection<Team> teams, String season, int gameweek, Map<Long, Lineup> lineupsByTeam) {
+        Map<Long, PowerupUsage> usages = powerupUsageRepository.findWithCountsBySeason(season).stream()
+                .collect(Collectors.toMap(usage -> usage.getTeam().getId(), Function.identity()));
+
+        List<PowerupUsage> lockedUsages = new ArrayList<>();
+        for (Team team : teams) {
+            PowerupUsage usage = usages.getOrDefault(team.getId(), new PowerupUsage(team, season));
+            if (usage.getLockedThroughGameweek() >= gameweek) {
+                continue;
+            }
+            if (usage.getLockedThroughGameweek() < gameweek - 1) {
+                lockThrough(team, season, gameweek);
+                continue;
+            }
+
+            Lineup lineup = lineupsByTeam.get(team.getId());
+            if (lineup != null && lineup.getPowerup() != null) {
+                usage.getUsed().merge(lineup.getPowerup(), 1, Integer::sum);
+            }
+            usage.setLockedThroughGameweek(gameweek);
+            lockedUsages.add(usage);
+        }
+        powerupUsageRepository.saveAll(lockedUsages);
+    }
+
+    private record Key(long teamId, String season) {
+    }
+
+    private record Entry(int lockedThroughGameweek, Map<String, Integer> used) {
+    }
+}
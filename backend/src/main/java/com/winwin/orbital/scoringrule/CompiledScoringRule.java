@@ -0,0 +1,111 @@
+package com.winwin.orbital.scoringrule;
+
+import com.winwin.orbital.player.Position;
+import com.winwin.orbital.playerperformance.PerformanceStats;
+import com.winwin.orbital.playerperformance.PlayerPerformance;
+
+import static com.winwin.orbital.playerperformance.PerformanceStats.*;
+
+/**
+ * Immutable, primitive form of a league's ScoringRule. Coefficients are laid out as one row of
+ * {@link PerformanceStats#STAT_COUNT} ints per position (plus a row for unrecognised positions),
+ * with penalties already negated, so a player's points are the dot product of their stats with
+ * the row for their position.
+ */
+public final class CompiledScoringRule {
+
+    private static final int ROWS = Position.COUNT + 1;
+
+    private final long version;
+    private final int[] coefficients;
+
+    private CompiledScoringRule(long version, int[] coefficients) {
+        this.version = version;
+        this.coefficients = coefficients;
+    }
+
+    public static CompiledScoringRule compile(ScoringRule scoringRule) {
+        int[] coefficients = new int[ROWS * STAT_COUNT];
+        for (int row = 0; row < ROWS; row++) {
+            Position position = row < Position.COUNT ? Position.values()[row] : null;
+            int offset = row * STAT_COUNT;
+
+            coefficients[offset + PLAYED_UNDER_60] = scoringRule.getFor60Mins();
+            coefficients[offset + PLAYED_60_OR_MORE] = scoringRule.getForOver60Mins();
+            coefficients[offset + ASSISTS] = scoringRule.getForAssist();
+            coefficients[offset + PENALTIES_SAVED] = scoringRule.getForPkSaved();
+            coefficients[offset + PENALTIES_MISSED] = scoringRule.getForPkMissed();
+            coefficients[offset + YELLOW_CARDS] = -scoringRule.getForYellowCard();
+            coefficients[offset + RED_CARDS] = -scoringRule.getForRedCard();
+            coefficients[offset + OWN_GOALS] = -scoringRule.getForOwnGoal();
+
+            if (position == Position.GOALKEEPER || position == Position.DEFENDER) {
+                coefficients[offset + GOALS] = scoringRule.getForGkDfGoal();
+                coefficients[offset + CLEAN_SHEET] = scoringRule.getForGkDfCleanSheet();
+                coefficients[offset + GOALS_CONCEDED_PER_2] = scoringRule.getFor2GoalsConceded();
+            } else if (position == Position.MIDFIELDER) {
+                coefficients[offset + GOALS] = scoringRule.getForMdGoal();
+                coefficients[offset + CLEAN_SHEET] = scoringRule.getForMdCleanSheet();
+            } else if (position == Position.FORWARD) {
+                coefficients[offset + GOALS] = scoringRule.getForFwGoal();
+            }
+
+            if (position == Position.GOALKEEPER) {
+                coefficients[offset + SAVES_PER_3] = scoringRule.getFor3GkSaves();
+            }
+        }
+        return new CompiledScoringRule(scoringRule.getVersion(), coefficients);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int score(Position position, PlayerPerformance performance) {
+        int[] c = coefficients;
+        int row = PerformanceStats.positionIndex(position) * STAT_COUNT;
+        int minutesPlayed = performance.getMinutesPlayed();
+
+        int points = 0;
+        if (minutesPlayed > 0 && minutesPlayed < 60) {
+            points += c[row + PLAYED_UNDER_60];
+        } else if (minutesPlayed >= 60) {
+            points += c[row + PLAYED_60_OR_MORE];
+        }
+        if (performance.getCleanSheet() > 0) {
+            points += c[row + CLEAN_SHEET];
+        }
+        return points
+                + performance.getGoalsScored() * c[row + GOALS]
+                + performance.getAssists() * c[row + ASSISTS]
+                + (performance.getSaves() / 3) * c[row + SAVES_PER_3]
+                + performance.getPenaltiesSaved() * c[row + PENALTIES_SAVED]
+                + performance.getPenaltiesMissed() * c[row + PENALTIES_MISSED]
+                + (performance.getGoalsConceded() / 2) * c[row + GOALS_CONCEDED_PER_2]
+                + performance.getYellowCards() * c[row + YELLOW_CARDS]
+                + performance.getRedCards() * c[row + RED_CARDS]
+                + performance.getOwnGoals() * c[row + OWN_GOALS];
+    }
+
+    public int score(int positionIndex, int[] stats, int offset) {
+        int[] c = coefficients;
+        int row = positionIndex * STAT_COUNT;
+        int points = 0;
+        for (int stat = 0; stat < STAT_COUNT; stat++) {
+            points += stats[offset + stat] * c[row + stat];
+        }
+        return points;
+    }
+
+    /**
+     * Scores every performance in a packed gameweek into {@code points}, which must hold at least
+     * {@code packed.size()} entries.
+     */
+    public void scoreAll(PerformanceStats.Packed packed, int[] points) {
+        int[] positions = packed.positions();
+        int[] stats = packed.stats();
+        for (int i = 0, size = packed.size(); i < size; i++) {
+            points[i] = score(positions[i], stats, i * STAT_COUNT);
+        }
+    }
+}
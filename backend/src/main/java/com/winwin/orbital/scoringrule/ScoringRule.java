@@ -37,6 +37,10 @@ public class ScoringRule {
     private int forRedCard;
     private int forOwnGoal;
 
+    @Version
+    @EqualsAndHashCode.Exclude
+    private long version;
+
     public ScoringRule(ScoringRuleDto scoringRuleDto, League league) {
         this.league = league;
         this.for60Mins = scoringRuleDto.getFor60Mins();
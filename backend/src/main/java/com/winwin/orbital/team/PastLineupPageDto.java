@@ -0,0 +1,23 @@
+package com.winwin.orbital.team;
+
+import com.winwin.orbital.lineup.PastLineupDto;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * One page of a team's past lineups. {@code nextSinceGameweek} is the last gameweek this page covers; pass it
+ * as {@code since_gameweek} to read the next page, or later on to read only the gameweeks finished since.
+ */
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class PastLineupPageDto {
+    private List<PastLineupDto> pastLineups;
+    private int nextSinceGameweek;
+    private boolean hasMore;
+}
@@ -53,4 +53,13 @@ public class TeamController {
             @RequestParam("league_id") Long leagueId) {
         return ResponseEntity.ok(teamService.getAllTeamsData(leagueId, userDetails));
     }
+
+    @GetMapping("/past_lineups")
+    public ResponseEntity<?> getPastLineups(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam("team_id") long teamId,
+            @RequestParam(value = "since_gameweek", defaultValue = "0") int sinceGameweek,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(teamService.getPastLineups(teamId, sinceGameweek, limit, userDetails));
+    }
 }
@@ -3,11 +3,34 @@ package com.winwin.orbital.team;
 import com.winwin.orbital.league.League;
 import com.winwin.orbital.manager.Manager;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TeamRepository extends JpaRepository<Team, Long> {
     Optional<Team> findByManagerAndLeague(Manager manager, League league);
+
+    List<Team> findByLeague(League league);
+
+    @Query("SELECT DISTINCT t FROM Team t " +
+            "JOIN FETCH t.manager m " +
+            "JOIN FETCH m.user " +
+            "JOIN FETCH t.league l " +
+            "LEFT JOIN FETCH l.scoringRule " +
+            "LEFT JOIN FETCH t.currentPlayers " +
+            "WHERE l.id = :leagueId")
+    List<Team> findWithSquadsByLeagueId(@Param("leagueId") long leagueId);
+
+    @Query("SELECT t FROM Team t " +
+            "JOIN FETCH t.league l " +
+            "LEFT JOIN FETCH l.scoringRule " +
+            "WHERE l.status = 'in season'")
+    List<Team> findInSeasonWithScoringRules();
+
+    @Query("SELECT t.id FROM Team t WHERE t.manager.id = :managerId AND t.league.id = :leagueId")
+    Optional<Long> findIdByManagerIdAndLeagueId(@Param("managerId") long managerId, @Param("leagueId") long leagueId);
 }
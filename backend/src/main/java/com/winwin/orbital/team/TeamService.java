@@ -1,21 +1,30 @@
 package com.winwin.orbital.team;
 
 import com.winwin.orbital.exception.LeagueNotFoundException;
+import com.winwin.orbital.exception.PlayerNotFoundException;
 import com.winwin.orbital.exception.TeamNotFoundException;
 import com.winwin.orbital.exception.UserNotFoundException;
 import com.winwin.orbital.gameweek.GameweekComponent;
 import com.winwin.orbital.league.League;
+import com.winwin.orbital.league.LeagueMembership;
 import com.winwin.orbital.league.LeagueRepository;
 import com.winwin.orbital.lineup.Lineup;
-import com.winwin.orbital.lineup.LineupService;
+import com.winwin.orbital.lineup.PastLineupDto;
+import com.winwin.orbital.manager.CurrentManager;
 import com.winwin.orbital.manager.Manager;
 import com.winwin.orbital.manager.ManagerRepository;
 import com.winwin.orbital.player.Player;
+import com.winwin.orbital.player.PlayerCatalog;
 import com.winwin.orbital.player.PlayerDto;
+import com.winwin.orbital.powerupusage.PowerupUsageService;
+import com.winwin.orbital.teamgameweekscore.GameweekPlayerResult;
+import com.winwin.orbital.teamgameweekscore.TeamGameweekScore;
+import com.winwin.orbital.teamgameweekscore.TeamGameweekScoreService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -23,27 +32,38 @@ import java.util.stream.Collectors;
 @Service
 public class TeamService {
 
+    private static final int MAX_PAST_LINEUPS_PAGE_SIZE = 38;
+
     private final ManagerRepository managerRepository;
     private final TeamRepository teamRepository;
     private final LeagueRepository leagueRepository;
-    private final LineupService lineupService;
+    private final PlayerCatalog playerCatalog;
+    private final TeamGameweekScoreService teamGameweekScoreService;
     private final GameweekComponent gameweekComponent;
+    private final LeagueMembership leagueMembership;
+    private final PowerupUsageService powerupUsageService;
 
     @Autowired
     public TeamService(ManagerRepository managerRepository,
                        TeamRepository teamRepository,
                        LeagueRepository leagueRepository,
-                       LineupService lineupService,
-                       GameweekComponent gameweekComponent) {
+                       PlayerCatalog playerCatalog,
+                       TeamGameweekScoreService teamGameweekScoreService,
+                       GameweekComponent gameweekComponent,
+                       LeagueMembership leagueMembership,
+                       PowerupUsageService powerupUsageService) {
         this.managerRepository = managerRepository;
         this.teamRepository = teamRepository;
         this.leagueRepository = leagueRepository;
-        this.lineupService = lineupService;
+        this.playerCatalog = playerCatalog;
+        this.teamGameweekScoreService = teamGameweekScoreService;
         this.gameweekComponent = gameweekComponent;
+        this.leagueMembership = leagueMembership;
+        this.powerupUsageService = powerupUsageService;
     }
 
     public List<PlayerDto> getCurrentPlayers(UserDetails userDetails, Long leagueId) {
-        Manager currentUserManager = managerRepository.findByUserUsername(userDetails.getUsername())
+        Manager currentUserManager = CurrentManager.find(managerRepository, userDetails)
                 .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
 
         League league = leagueRepository.findById(leagueId)
@@ -55,12 +75,13 @@ public class TeamService {
         Set<Player> currentPlayers = team.getCurrentPlayers();
 
         return currentPlayers.stream()
-                .map(PlayerDto::new)
+                .map(playerCatalog::toDto)
                 .collect(Collectors.toList());
     }
 
+    @Transactional
     public Map<String, Integer> getCurrentTeamRemainingPowerups(UserDetails userDetails, Long leagueId) {
-        Manager currentUserManager = managerRepository.findByUserUsername(userDetails.getUsername())
+        Manager currentUserManager = CurrentManager.find(managerRepository, userDetails)
                 .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
 
         League league = leagueRepository.findById(leagueId)
@@ -80,20 +101,29 @@ public class TeamService {
             throw new AccessDeniedException("Manager is not in the team's league.");
         }
 
-        return calculatePoints(team);
+        return teamGameweekScoreService.getSeasonPoints(team);
     }
 
+    /**
+     * Loads the whole league in a fixed number of queries, however many teams and gameweeks it has: the teams
+     * with their managers and squads, and the stored scores, which hold each past lineup's player results.
+     */
+    @Transactional
     public List<TeamDataDto> getAllTeamsData(long leagueId, UserDetails userDetails) {
-        Manager currentUserManager = managerRepository.findByUserUsername(userDetails.getUsername())
+        long currentUserManagerId = CurrentManager.findId(managerRepository, userDetails)
                 .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
 
-        League league = leagueRepository.findById(leagueId)
-                .orElseThrow(() -> new LeagueNotFoundException("League not found."));
+        List<Team> teams = teamRepository.findWithSquadsByLeagueId(leagueId);
+        if (teams.isEmpty()) {
+            throw new LeagueNotFoundException("League not found.");
+        }
+        if (teams.stream().noneMatch(team -> team.getManager().getId() == currentUserManagerId)) {
+            throw new AccessDeniedException("Manager is not in league.");
+        }
 
-        teamRepository.findByManagerAndLeague(currentUserManager, league)
-                .orElseThrow(() -> new AccessDeniedException("Manager is not in league."));
+        Map<Long, List<TeamGameweekScore>> seasonResults = teamGameweekScoreService.getSeasonResults(teams);
 
-        return league.getTeams().stream().map(team -> {
+        return teams.stream().sorted(Comparator.comparingLong(Team::getId)).map(team -> {
             TeamDataDto teamDataDto = new TeamDataDto();
             teamDataDto.setId(team.getId());
             teamDataDto.setTeamName(team.getName());
@@ -101,72 +131,103 @@ public class TeamService {
             teamDataDto.setManagerUsername(team.getManager().getUser().getUsername());
             teamDataDto.setLeagueId(team.getLeague().getId());
             teamDataDto.setLeagueName(team.getLeague().getName());
-            teamDataDto.setPoints(calculatePoints(team));
+            List<TeamGameweekScore> scores = seasonResults.get(team.getId());
+            teamDataDto.setPoints(scores.stream()
+                    .mapToInt(TeamGameweekScore::getPoints)
+                    .sum());
             teamDataDto.setCurrentPlayers(team.getCurrentPlayers().stream()
-                    .map(PlayerDto::new)
+                    .map(playerCatalog::toDto)
                     .collect(Collectors.toSet()));
-            teamDataDto.setPastLineups(lineupService.getPastLineups(team));
+            teamDataDto.setPastLineups(scores.stream()
+                    .filter(score -> score.getLineup() != null)
+                    .map(score -> toPastLineupDto(team.getId(), score))
+                    .toList());
             return teamDataDto;
         }).toList();
 
     }
 
-    private int calculatePoints(Team team) {
-        int currentGameweek = gameweekComponent.getCurrentGameweek();
-        String currentSeason = gameweekComponent.getCurrentSeason();
+    /**
+     * Reads a team's past lineups from the stored gameweek results, a page of gameweeks at a time, starting
+     * after {@code sinceGameweek}. Gameweeks in which the team had no lineup are skipped, so a page can hold
+     * fewer lineups than {@code limit}.
+     */
+    @Transactional
+    public PastLineupPageDto getPastLineups(long teamId, int sinceGameweek, int limit, UserDetails userDetails) {
+        long currentUserManagerId = CurrentManager.findId(managerRepository, userDetails)
+                .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."));
 
-        int points = 0;
-        for (int gameweek = 1; gameweek < currentGameweek; gameweek++) {
-            Optional<Lineup> lineupOpt = getLineupByTeamandGameweekAndSeason(team, gameweek, currentSeason);
-            if (lineupOpt.isPresent()) {
-                points += lineupService.calculatePoints(lineupOpt.get());
-            }
-        }
+        Team team = teamRepository.findById(teamId)
+                .orElseThrow(() -> new TeamNotFoundException("Team not found."));
+        leagueMembership.requireMember(currentUserManagerId, team.getLeague().getId());
+
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAST_LINEUPS_PAGE_SIZE);
+        List<TeamGameweekScore> scores = teamGameweekScoreService.getGameweekResults(team, sinceGameweek, pageSize);
+
+        PastLineupPageDto page = new PastLineupPageDto();
+        page.setPastLineups(scores.stream()
+                .filter(score -> score.getLineup() != null)
+                .map(score -> toPastLineupDto(teamId, score))
+                .toList());
+        page.setNextSinceGameweek(scores.isEmpty()
+                ? Math.max(sinceGameweek, 0)
+                : scores.get(scores.size() - 1).getGameweek());
+        page.setHasMore(page.getNextSinceGameweek() < gameweekComponent.getCurrentGameweek() - 1);
+        return page;
+    }
 
-        return points;
+    private PastLineupDto toPastLineupDto(long teamId, TeamGameweekScore score) {
+        Lineup lineup = score.getLineup();
+        Map<Long, GameweekPlayerResult> playerResults = score.getPlayerResults();
+
+        PastLineupDto dto = new PastLineupDto();
+        dto.setId(lineup.getId());
+        dto.setTeamId(teamId);
+        dto.setGameweek(score.getGameweek());
+        dto.setSeason(score.getSeason());
+        dto.setStartingPlayers(playerResults.entrySet().stream()
+                .filter(entry -> entry.getValue().getSubstituteOrder() == null)
+                .map(entry -> findPlayerDto(entry.getKey()))
+                .collect(Collectors.toSet()));
+        dto.setCaptainId(lineup.getCaptain().getId());
+        dto.setViceCaptainId(lineup.getViceCaptain().getId());
+        dto.setSubstitutes(playerResults.entrySet().stream()
+                .filter(entry -> entry.getValue().getSubstituteOrder() != null)
+                .collect(Collectors.toMap(entry -> entry.getValue().getSubstituteOrder(),
+                        entry -> findPlayerDto(entry.getKey()))));
+        dto.setPowerup(lineup.getPowerup());
+        dto.setPoints(score.getPoints());
+
+        Map<Long, Integer> playerPoints = new HashMap<>();
+        Map<Long, Boolean> playerToPlayedOrNot = new HashMap<>();
+        playerResults.forEach((playerId, result) -> {
+            playerPoints.put(playerId, result.getPoints());
+            playerToPlayedOrNot.put(playerId, result.isPlayed());
+        });
+        dto.setPlayerPoints(playerPoints);
+        dto.setPlayerToPlayedOrNot(playerToPlayedOrNot);
+        return dto;
+    }
+
+    private PlayerDto findPlayerDto(long playerId) {
+        return playerCatalog.findById(playerId)
+                .map(PlayerDto::new)
+                .orElseThrow(() -> new PlayerNotFoundException("Player not found."));
     }
 
     private Map<String, Integer> getRemainingPowerups(Team team) {
         Map<String, Integer> availablePowerups = team.getLeague().getPowerUps();
-        int currentGameweek = gameweekComponent.getCurrentGameweek();
-        String currentSeason = gameweekComponent.getCurrentSeason();
-
-        Map<Integer, Lineup> latestLineupsByGameweek = team.getLineupHistory().stream()
-                .filter(lineup -> lineup.getSeason().equals(currentSeason) && lineup.getGameweek() < currentGameweek)
-                .collect(Collectors.toMap(
-                        Lineup::getGameweek,
-                        lineup -> lineup,
-                        (lineup1, lineup2) -> lineup1.getSubmittedAt().isAfter(lineup2.getSubmittedAt()) ? lineup1 : lineup2
-                ));
-
-        long powerupsUsedBBoost = latestLineupsByGameweek.values().stream()
-                .filter(lineup -> "bboost".equals(lineup.getPowerup()))
-                .count();
-
-        long powerupsUsedCx3 = latestLineupsByGameweek.values().stream()
-                .filter(lineup -> "cx3".equals(lineup.getPowerup()))
-                .count();
+        Map<String, Integer> usedPowerups = powerupUsageService.getUsedPowerups(team);
 
         Map<String, Integer> remainingPowerups = new HashMap<>();
-        remainingPowerups.put("bboost", availablePowerups.getOrDefault("bboost", 0) - (int) powerupsUsedBBoost);
-        remainingPowerups.put("cx3", availablePowerups.getOrDefault("cx3", 0) - (int) powerupsUsedCx3);
+        remainingPowerups.put("bboost", availablePowerups.getOrDefault("bboost", 0) - usedPowerups.getOrDefault("bboost", 0));
+        remainingPowerups.put("cx3", availablePowerups.getOrDefault("cx3", 0) - usedPowerups.getOrDefault("cx3", 0));
 
         return remainingPowerups;
     }
 
-    private Optional<Lineup> getLineupByTeamandGameweekAndSeason(Team team, int gameweek, String season) {
-        Set<Lineup> lineupHistory = team.getLineupHistory();
-        List<Lineup> filteredLineups = lineupHistory.stream()
-                .filter(lineup -> lineup.getSeason().equals(season) && lineup.getGameweek() == gameweek)
-                .toList();
-
-        return filteredLineups.stream()
-                .max(Comparator.comparing(Lineup::getSubmittedAt));
-    }
-
     private boolean userCanViewTeam(Team team, UserDetails userDetails) {
-        String username = userDetails.getUsername();
-        return managerRepository.findByUserUsername(username)
+        return CurrentManager.find(managerRepository, userDetails)
                 .orElseThrow(() -> new UserNotFoundException("Cannot authenticate current user."))
                 .getTeams().stream()
                 .map(Team::getLeague)
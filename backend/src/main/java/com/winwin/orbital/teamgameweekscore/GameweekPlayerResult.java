@@ -0,0 +1,25 @@
+package com.winwin.orbital.teamgameweekscore;
+
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+/**
+ * What one player of a lineup scored in the gameweek. {@code substituteOrder} is the player's place on the
+ * bench, or null for a starting player.
+ */
+@ToString
+@Getter
+@Setter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+@Embeddable
+public class GameweekPlayerResult {
+
+    private int points;
+
+    private boolean played;
+
+    private Integer substituteOrder;
+
+}
@@ -0,0 +1,76 @@
+package com.winwin.orbital.teamgameweekscore;
+
+import com.winwin.orbital.lineup.Lineup;
+import com.winwin.orbital.playerperformance.GameweekPerformanceStamp;
+import com.winwin.orbital.team.Team;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@ToString
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@Entity
+@Table(name = "team_gameweek_score",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"team_id", "season", "gameweek"}),
+        indexes = @Index(name = "idx_team_gameweek_score_team_season", columnList = "team_id, season"))
+public class TeamGameweekScore {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "team_id", nullable = false)
+    @ToString.Exclude
+    private Team team;
+
+    private int gameweek;
+
+    private String season;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "lineup_id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Lineup lineup;
+
+    @EqualsAndHashCode.Exclude
+    private int points;
+
+    @EqualsAndHashCode.Exclude
+    private long scoringRuleVersion;
+
+    @EqualsAndHashCode.Exclude
+    private long performanceCount;
+
+    @EqualsAndHashCode.Exclude
+    private LocalDateTime performanceUpdatedAt;
+
+    @EqualsAndHashCode.Exclude
+    private LocalDateTime computedAt;
+
+    @ElementCollection
+    @CollectionTable(name = "team_gameweek_player_result", joinColumns = @JoinColumn(name = "team_gameweek_score_id"))
+    @MapKeyColumn(name = "player_id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Map<Long, GameweekPlayerResult> playerResults = new HashMap<>();
+
+    public TeamGameweekScore(Team team, int gameweek, String season) {
+        this.team = team;
+        this.gameweek = gameweek;
+        this.season = season;
+    }
+
+    public boolean isStale(long scoringRuleVersion, GameweekPerformanceStamp stamp) {
+        return this.scoringRuleVersion != scoringRuleVersion
+                || !stamp.matches(performanceCount, performanceUpdatedAt);
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.winwin.orbital.teamgameweekscore;
+
+import com.winwin.orbital.team.Team;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TeamGameweekScoreRepository extends JpaRepository<TeamGameweekScore, Long> {
+    List<TeamGameweekScore> findByTeamAndSeason(Team team, String season);
+
+    List<TeamGameweekScore> findBySeason(String season);
+
+    @Query("SELECT DISTINCT s FROM TeamGameweekScore s LEFT JOIN FETCH s.lineup LEFT JOIN FETCH s.playerResults " +
+            "WHERE s.team IN :teams AND s.season = :season")
+    List<TeamGameweekScore> findWithResultsByTeamInAndSeason(@Param("teams") Collection<Team> teams,
+                                                             @Param("season") String season);
+
+    @Query("SELECT DISTINCT s FROM TeamGameweekScore s LEFT JOIN FETCH s.playerResults " +
+            "WHERE s.season = :season AND s.gameweek = :gameweek")
+    List<TeamGameweekScore> findWithResultsBySeasonAndGameweek(@Param("season") String season,
+                                                               @Param("gameweek") int gameweek);
+
+    @Query("SELECT DISTINCT s FROM TeamGameweekScore s LEFT JOIN FETCH s.lineup LEFT JOIN FETCH s.playerResults " +
+            "WHERE s.team = :team AND s.season = :season " +
+            "AND s.gameweek > :sinceGameweek AND s.gameweek < :beforeGameweek")
+    List<TeamGameweekScore> findWithResultsByTeamAndSeasonBetween(@Param("team") Team team,
+                                                                  @Param("season") String season,
+                                                                  @Param("sinceGameweek") int sinceGameweek,
+                                                                  @Param("beforeGameweek") int beforeGameweek);
+}
@@ -0,0 +1,185 @@
+package com.winwin.orbital.teamgameweekscore;
+
+import com.winwin.orbital.gameweek.GameweekComponent;
+import com.winwin.orbital.lineup.Lineup;
+import com.winwin.orbital.lineup.LineupService;
+import com.winwin.orbital.player.Player;
+import com.winwin.orbital.playerperformance.GameweekPerformanceStamp;
+import com.winwin.orbital.playerperformance.PlayerPerformance;
+import com.winwin.orbital.playerperformance.PlayerPerformanceRepository;
+import com.winwin.orbital.team.Team;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class TeamGameweekScoreService {
+
+    private final TeamGameweekScoreRepository teamGameweekScoreRepository;
+    private final PlayerPerformanceRepository playerPerformanceRepository;
+    private final LineupService lineupService;
+    private final GameweekComponent gameweekComponent;
+
+    @Autowired
+    public TeamGameweekScoreService(TeamGameweekScoreRepository teamGameweekScoreRepository,
+                                    PlayerPerformanceRepository playerPerformanceRepository,
+                                    LineupService lineupService,
+                                    GameweekComponent gameweekComponent) {
+        this.teamGameweekScoreRepository = teamGameweekScoreRepository;
+        this.playerPerformanceRepository = playerPerformanceRepository;
+        this.lineupService = lineupService;
+        this.gameweekComponent = gameweekComponent;
+    }
+
+    public Map<Integer, GameweekPerformanceStamp> getPerformanceStamps(String season) {
+        return playerPerformanceRepository.findGameweekStampsBySeason(season).stream()
+                .collect(Collectors.toMap(GameweekPerformanceStamp::gameweek, Function.identity()));
+    }
+
+    /**
+     * Sums the scores {@link com.winwin.orbital.gameweek.GameweekRollover} stored for the finished gameweeks of
+     * the current season. Nothing is computed here: a gameweek that has not been rolled over yet counts as 0.
+     */
+    public int getSeasonPoints(Team team) {
+        int currentGameweek = gameweekComponent.getCurrentGameweek();
+        return teamGameweekScoreRepository.findByTeamAndSeason(team, gameweekComponent.getCurrentSeason()).stream()
+                .filter(score -> score.getGameweek() < currentGameweek)
+                .mapToInt(TeamGameweekScore::getPoints)
+                .sum();
+    }
+
+    /**
+     * The stored score of every finished gameweek of the current season for each team, by team id and in
+     * gameweek order, with the result of every player in the lineup. The scores of all the teams are read in
+     * one query.
+     */
+    @Transactional
+    public Map<Long, List<TeamGameweekScore>> getSeasonResults(Collection<Team> teams) {
+        int currentGameweek = gameweekComponent.getCurrentGameweek();
+        Map<Long, List<TeamGameweekScore>> storedScoresByTeam = teamGameweekScoreRepository
+                .findWithResultsByTeamInAndSeason(teams, gameweekComponent.getCurrentSeason()).stream()
+                .filter(score -> score.getGameweek() < currentGameweek)
+                .sorted(Comparator.comparingInt(TeamGameweekScore::getGameweek))
+                .collect(Collectors.groupingBy(score -> score.getTeam().getId()));
+
+        Map<Long, List<TeamGameweekScore>> results = new HashMap<>();
+        for (Team team : teams) {
+            results.put(team.getId(), storedScoresByTeam.getOrDefault(team.getId(), List.of()));
+        }
+        return results;
+    }
+
+    /**
+     * The stored scores of the finished gameweeks after {@code sinceGameweek}, at most {@code limit} of them and
+     * in gameweek order, with the result of every player in the lineup.
+     */
+    @Transactional
+    public List<TeamGameweekScore> getGameweekResults(Team team, int sinceGameweek, int limit) {
+        int fromGameweek = Math.max(sinceGameweek, 0) + 1;
+        int beforeGameweek = Math.min(gameweekComponent.getCurrentGameweek(), fromGameweek + limit);
+        if (fromGameweek >= beforeGameweek) {
+            return List.of();
+        }
+
+        return teamGameweekScoreRepository.findWithResultsByTeamAndSeasonBetween(team,
+                        gameweekComponent.getCurrentSeason(), fromGameweek - 1, beforeGameweek).stream()
+                .sorted(Comparator.comparingInt(TeamGameweekScore::getGameweek))
+                .toList();
+    }
+
+    /**
+     * The gameweeks among {@code gameweeks} that have to be scored again: a team has no stored score for them,
+     * or the score was computed from performances or a league scoring rule that changed since.
+     */
+    public Set<Integer> findStaleGameweeks(Collection<Team> teams, String season, Collection<Integer> gameweeks) {
+        Map<Integer, GameweekPerformanceStamp> performanceStamps = getPerformanceStamps(season);
+        Map<Integer, Map<Long, TeamGameweekScore>> storedScores = teamGameweekScoreRepository.findBySeason(season).stream()
+                .collect(Collectors.groupingBy(TeamGameweekScore::getGameweek,
+                        Collectors.toMap(score -> score.getTeam().getId(), Function.identity())));
+
+        Set<Integer> staleGameweeks = new TreeSet<>();
+        for (int gameweek : gameweeks) {
+            GameweekPerformanceStamp stamp = performanceStamps.getOrDefault(gameweek,
+                    GameweekPerformanceStamp.empty(gameweek));
+            Map<Long, TeamGameweekScore> scores = storedScores.getOrDefault(gameweek, Map.of());
+            for (Team team : teams) {
+                TeamGameweekScore score = scores.get(team.getId());
+                if (score == null || score.isStale(team.getLeague().getScoringRule().getVersion(), stamp)) {
+                    staleGameweeks.add(gameweek);
+                    break;
+                }
+            }
+        }
+        return staleGameweeks;
+    }
+
+    /**
+     * Stores the results of one gameweek for every given team at once, replacing any score already stored.
+     * {@code playerResults} maps each team's id to its players' results, and has no entry for teams without a
+     * lineup in the gameweek.
+     */
+    @Transactional
+    public void saveGameweekScores(Collection<Team> teams, String season, int gameweek,
+                                   Map<Long, Lineup> lineupsByTeam,
+                                   Map<Long, Map<Long, GameweekPlayerResult>> playerResults,
+                                   GameweekPerformanceStamp stamp) {
+        Map<Long, TeamGameweekScore> storedScores = teamGameweekScoreRepository
+                .findWithResultsBySeasonAndGameweek(season, gameweek).stream()
+                .collect(Collectors.toMap(score -> score.getTeam().getId(), Function.identity()));
+
+        List<TeamGameweekScore> scores = new ArrayList<>();
+        for (Team team : teams) {
+            TeamGameweekScore score = storedScores.get(team.getId());
+            if (score == null) {
+                score = new TeamGameweekScore(team, gameweek, season);
+            }
+            setScore(score, lineupsByTeam.get(team.getId()), playerResults.getOrDefault(team.getId(), Map.of()),
+                    team.getLeague().getScoringRule().getVersion(), stamp);
+            scores.add(score);
+        }
+        teamGameweekScoreRepository.saveAll(scores);
+    }
+
+    private void setScore(TeamGameweekScore score, Lineup lineup, Map<Long, GameweekPlayerResult> playerResults,
+                          long scoringRuleVersion, GameweekPerformanceStamp stamp) {
+        score.setLineup(lineup);
+        score.getPlayerResults().clear();
+        score.getPlayerResults().putAll(playerResults);
+        score.setPoints(playerResults.values().stream()
+                .mapToInt(GameweekPlayerResult::getPoints)
+                .sum());
+        score.setScoringRuleVersion(scoringRuleVersion);
+        score.setPerformanceCount(stamp.performanceCount());
+        score.setPerformanceUpdatedAt(stamp.lastUpdatedAt());
+        score.setComputedAt(LocalDateTime.now());
+    }
+
+    /**
+     * Runs auto-subs and scoring for a lineup, taking each player's points in the lineup's league from
+     * {@code leaguePoints}, as scored for the whole gameweek at once. Reads nothing from the database, so it can
+     * run off the thread that loaded the lineup as long as its players, substitutes, team and league are
+     * already loaded.
+     */
+    public Map<Long, GameweekPlayerResult> computePlayerResults(Lineup lineup,
+                                                               Map<Long, PlayerPerformance> performances,
+                                                               Map<Long, Player> substitutePlayers,
+                                                               Map<Long, Integer> leaguePoints) {
+        Map<Long, Integer> playerPoints = lineupService.calculatePointsForPlayers(lineup, performances,
+                substitutePlayers, performance -> leaguePoints.getOrDefault(performance.getPlayer().getId(), 0));
+        Map<Long, Integer> substituteOrders = lineup.getSubstitutes().entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getValue, Map.Entry::getKey, (order1, order2) -> order1));
+
+        Map<Long, GameweekPlayerResult> playerResults = new HashMap<>();
+        playerPoints.forEach((playerId, points) ->
+                playerResults.put(playerId, new GameweekPlayerResult(points,
+                        lineupService.playedInGameweek(playerId, performances),
+                        substituteOrders.get(playerId))));
+        return playerResults;
+    }
+
+}
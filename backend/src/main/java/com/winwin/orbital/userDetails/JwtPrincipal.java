@@ -0,0 +1,88 @@
+package com.winwin.orbital.userdetails;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The current user as described by a verified token's claims, so an authenticated request needs no user
+ * lookup. It carries no password.
+ */
+public class JwtPrincipal implements UserDetails {
+
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String MANAGER_ID_CLAIM = "mid";
+    public static final String ROLE_CLAIM = "role";
+
+    private final long userId;
+    private final Long managerId;
+    private final String username;
+    private final String role;
+
+    public JwtPrincipal(long userId, Long managerId, String username, String role) {
+        this.userId = userId;
+        this.managerId = managerId;
+        this.username = username;
+        this.role = role;
+    }
+
+    /**
+     * Returns null for tokens issued without the user id and role claims.
+     */
+    public static JwtPrincipal fromClaims(Claims claims) {
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        return new JwtPrincipal(userId, claims.get(MANAGER_ID_CLAIM, Long.class), claims.getSubject(), role);
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public Long getManagerId() {
+        return managerId;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.winwin.orbital.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChannelExecutorsTest {
+
+    @Test
+    public void testTasksRunOnVirtualThreadsWithinConcurrencyLimit() throws InterruptedException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SimpleAsyncTaskExecutor executor = ChannelExecutors.virtualThreadExecutor("inbound", 2, meterRegistry);
+        executor.setTaskTerminationTimeout(10000);
+        int tasks = 20;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger virtual = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(tasks);
+
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                if (Thread.currentThread().isVirtual()) {
+                    virtual.incrementAndGet();
+                }
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.close();
+        assertTrue(maxRunning.get() <= 2);
+        assertEquals(tasks, virtual.get());
+        assertEquals(tasks, meterRegistry.get("websocket.channel.tasks").tag("channel", "inbound").counter().count());
+        assertEquals(tasks, meterRegistry.get("websocket.channel.task.duration").tag("channel", "inbound").timer().count());
+        assertEquals(0, meterRegistry.get("websocket.channel.tasks.active").tag("channel", "inbound").gauge().value());
+    }
+}
@@ -0,0 +1,128 @@
+package com.winwin.orbital.config;
+
+import com.winwin.orbital.draft.DraftWebSocketHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class CoalescingWebSocketSessionTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Runnable> flushTasks = new ArrayList<>();
+    private final List<String> sent = new ArrayList<>();
+    private WebSocketSession delegate;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        delegate = mock(WebSocketSession.class);
+        when(delegate.getId()).thenReturn("session-1");
+        doAnswer(invocation -> sent.add(((TextMessage) invocation.getArgument(0)).getPayload()))
+                .when(delegate).sendMessage(any());
+    }
+
+    @Test
+    public void testSnapshotReplacesBufferedDraftFramesOfItsLeague() throws Exception {
+        CoalescingWebSocketSession session = session(10000, 1 << 20);
+
+        session.sendMessage(draftFrame(DraftWebSocketHandler.EVENT_FRAME, 1, "e1"));
+        session.sendMessage(draftFrame(DraftWebSocketHandler.EVENT_FRAME, 2, "other league"));
+        session.sendMessage(draftFrame(DraftWebSocketHandler.SNAPSHOT_FRAME, 1, "s1"));
+        session.sendMessage(frame("not a draft frame"));
+        session.sendMessage(draftFrame(DraftWebSocketHandler.EVENT_FRAME, 1, "e2"));
+        session.sendMessage(draftFrame(DraftWebSocketHandler.SNAPSHOT_FRAME, 1, "s2"));
+        flush();
+
+        assertEquals(List.of("other league", "not a draft frame", "s2"), bodies());
+        assertEquals(3, meterRegistry.counter("websocket.draft.frames.coalesced", "league", "1").count());
+        assertEquals(0, session.getBufferSize());
+    }
+
+    @Test
+    public void testOverflowDropsOldestDraftEventsButKeepsSnapshots() throws Exception {
+        WebSocketMessage<?> snapshot = draftFrame(DraftWebSocketHandler.SNAPSHOT_FRAME, 1, "s1");
+        WebSocketMessage<?> event = draftFrame(DraftWebSocketHandler.EVENT_FRAME, 1, "e1");
+        CoalescingWebSocketSession session = session(10000, snapshot.getPayloadLength() + 2 * event.getPayloadLength());
+
+        session.sendMessage(snapshot);
+        session.sendMessage(event);
+        session.sendMessage(draftFrame(DraftWebSocketHandler.EVENT_FRAME, 1, "e2"));
+        session.sendMessage(draftFrame(DraftWebSocketHandler.EVENT_FRAME, 1, "e3"));
+        assertEquals(1, meterRegistry.counter("websocket.draft.frames.dropped", "league", "1").count());
+
+        assertThrows(SessionLimitExceededException.class, () -> session.sendMessage(frame("x".repeat(1000))));
+        assertEquals(1, meterRegistry.counter("websocket.sessions.limit-exceeded").count());
+        flush();
+        assertTrue(sent.isEmpty());
+    }
+
+    @Test
+    public void testSendSlowerThanTimeLimitEndsSession() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(delegate).sendMessage(any());
+        CoalescingWebSocketSession session = new CoalescingWebSocketSession(delegate, 10, 1 << 20,
+                task -> Thread.ofVirtual().start(task), meterRegistry);
+
+        session.sendMessage(frame("first"));
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+
+        assertThrows(SessionLimitExceededException.class, () -> session.sendMessage(frame("second")));
+        release.countDown();
+        assertEquals(1, meterRegistry.counter("websocket.sessions.limit-exceeded").count());
+    }
+
+    private CoalescingWebSocketSession session(int sendTimeLimit, int bufferSizeLimit) {
+        return new CoalescingWebSocketSession(delegate, sendTimeLimit, bufferSizeLimit, flushTasks::add, meterRegistry);
+    }
+
+    private void flush() {
+        while (!flushTasks.isEmpty()) {
+            flushTasks.remove(0).run();
+        }
+    }
+
+    private List<String> bodies() {
+        return sent.stream().map(payload -> payload.substring(payload.indexOf("\n\n") + 2, payload.length() - 1)).toList();
+    }
+
+    private static TextMessage draftFrame(String kind, long leagueId, String body) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        accessor.setNativeHeader(DraftWebSocketHandler.FRAME_HEADER, kind);
+        accessor.setNativeHeader(DraftWebSocketHandler.LEAGUE_HEADER, String.valueOf(leagueId));
+        return encode(accessor, body);
+    }
+
+    private static TextMessage frame(String body) {
+        return encode(StompHeaderAccessor.create(StompCommand.MESSAGE), body);
+    }
+
+    private static TextMessage encode(StompHeaderAccessor accessor, String body) {
+        accessor.setDestination("/topic/draft");
+        byte[] bytes = new StompEncoder().encode(MessageBuilder.createMessage(
+                body.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders()));
+        return new TextMessage(bytes);
+    }
+}
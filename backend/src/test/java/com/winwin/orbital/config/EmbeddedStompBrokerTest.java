@@ -0,0 +1,147 @@
+package com.winwin.orbital.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs Spring's broker relay against the embedded broker, with no network, the way the application does when
+ * websocket.broker.mode is embedded.
+ */
+public class EmbeddedStompBrokerTest {
+
+    private final ExecutorSubscribableChannel clientInboundChannel = new ExecutorSubscribableChannel();
+    private final ExecutorSubscribableChannel clientOutboundChannel = new ExecutorSubscribableChannel();
+    private final ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+    private final BlockingQueue<Message<?>> sentToClients = new LinkedBlockingQueue<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StompBrokerRelayMessageHandler relay;
+
+    @AfterEach
+    public void tearDown() {
+        relay.stop();
+    }
+
+    @Test
+    public void testTopicMessagesReachSubscribedClientSessions() throws InterruptedException {
+        startRelay(1000);
+        clientOutboundChannel.subscribe(sentToClients::add);
+
+        connect("session-1");
+        connect("session-2");
+        subscribe("session-1", "sub-0", "/topic/draft/1");
+        subscribe("session-2", "sub-0", "/topic/draft/2");
+        template().convertAndSend("/topic/draft/1", "picked");
+
+        StompHeaderAccessor message = StompHeaderAccessor.wrap(nextFrame(StompCommand.MESSAGE));
+        assertEquals("session-1", message.getSessionId());
+        assertEquals("sub-0", message.getSubscriptionId());
+        assertEquals("/topic/draft/1", message.getDestination());
+        assertNull(sentToClients.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testSlowSubscriptionDropsMessagesPastItsBuffer() throws InterruptedException {
+        startRelay(1);
+        CountDownLatch firstMessageReceived = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        clientOutboundChannel.subscribe(message -> {
+            if (StompCommand.MESSAGE.equals(StompHeaderAccessor.wrap(message).getCommand())
+                    && firstMessageReceived.getCount() > 0) {
+                firstMessageReceived.countDown();
+                await(release);
+            }
+            sentToClients.add(message);
+        });
+
+        connect("session-1");
+        subscribe("session-1", "sub-0", "/topic/draft/1");
+        SimpMessagingTemplate template = template();
+        template.convertAndSend("/topic/draft/1", "1");
+        assertTrue(firstMessageReceived.await(5, TimeUnit.SECONDS));
+        for (int i = 2; i <= 4; i++) {
+            template.convertAndSend("/topic/draft/1", String.valueOf(i));
+        }
+        release.countDown();
+
+        assertEquals("1", payload(nextFrame(StompCommand.MESSAGE)));
+        assertEquals("2", payload(nextFrame(StompCommand.MESSAGE)));
+        assertNull(sentToClients.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(2, meterRegistry.counter("stomp.embedded.messages.dropped").count());
+    }
+
+    private void startRelay(int subscriptionBufferSize) throws InterruptedException {
+        relay = new StompBrokerRelayMessageHandler(clientInboundChannel, clientOutboundChannel, brokerChannel,
+                List.of("/topic"));
+        relay.setTcpClient(new EmbeddedStompBroker(meterRegistry, subscriptionBufferSize));
+        relay.start();
+        for (int i = 0; i < 500 && !relay.isBrokerAvailable(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(relay.isBrokerAvailable());
+    }
+
+    private SimpMessagingTemplate template() {
+        SimpMessagingTemplate template = new SimpMessagingTemplate(brokerChannel);
+        template.setMessageConverter(new StringMessageConverter());
+        return template;
+    }
+
+    private void connect(String sessionId) throws InterruptedException {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setAcceptVersion("1.2");
+        accessor.setHeartbeat(0, 0);
+        send(sessionId, accessor);
+        assertEquals(sessionId, StompHeaderAccessor.wrap(nextFrame(StompCommand.CONNECTED)).getSessionId());
+    }
+
+    private void subscribe(String sessionId, String subscriptionId, String destination) throws InterruptedException {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        accessor.setReceipt("subscribed-" + subscriptionId);
+        send(sessionId, accessor);
+        assertEquals(sessionId, StompHeaderAccessor.wrap(nextFrame(StompCommand.RECEIPT)).getSessionId());
+    }
+
+    private void send(String sessionId, StompHeaderAccessor accessor) {
+        accessor.setSessionId(sessionId);
+        clientInboundChannel.send(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    private Message<?> nextFrame(StompCommand command) throws InterruptedException {
+        Message<?> message = sentToClients.poll(5, TimeUnit.SECONDS);
+        assertNotNull(message, "No " + command + " frame");
+        assertEquals(command, StompHeaderAccessor.wrap(message).getCommand());
+        return message;
+    }
+
+    private static String payload(Message<?> message) {
+        return new String((byte[]) message.getPayload(), StandardCharsets.UTF_8);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.winwin.orbital.draft;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DraftEventLoopTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DraftEventLoopGroup eventLoopGroup;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        eventLoopGroup = new DraftEventLoopGroup(meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        eventLoopGroup.shutdown();
+    }
+
+    @Test
+    public void testTasksFromManyThreadsRunOneAtATimeInSubmissionOrder() throws InterruptedException {
+        DraftEventLoop eventLoop = eventLoopGroup.newEventLoop(1L);
+        int producers = 8;
+        int tasksPerProducer = 1000;
+        List<List<Integer>> seen = new ArrayList<>();
+        for (int i = 0; i < producers; i++) {
+            seen.add(new ArrayList<>());
+        }
+        int[] running = new int[1];
+        boolean[] overlapped = new boolean[1];
+        CountDownLatch done = new CountDownLatch(producers * tasksPerProducer);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+
+        for (int producer = 0; producer < producers; producer++) {
+            int id = producer;
+            executor.execute(() -> {
+                for (int task = 0; task < tasksPerProducer; task++) {
+                    int value = task;
+                    // Plain fields are safe here only because the loop never runs two tasks at once
+                    eventLoop.execute(() -> {
+                        overlapped[0] |= ++running[0] > 1;
+                        seen.get(id).add(value);
+                        running[0]--;
+                        done.countDown();
+                    });
+                }
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertFalse(overlapped[0]);
+        for (List<Integer> values : seen) {
+            assertEquals(tasksPerProducer, values.size());
+            for (int i = 0; i < tasksPerProducer; i++) {
+                assertEquals(i, values.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testQueueDepthIsReportedPerLeagueUntilClosed() throws InterruptedException {
+        DraftEventLoop eventLoop = eventLoopGroup.newEventLoop(7L);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+
+        eventLoop.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        eventLoop.execute(() -> {
+            throw new IllegalStateException("bad task");
+        });
+        eventLoop.execute(finished::countDown);
+
+        assertEquals(2, meterRegistry.get("draft.event-loop.queue.depth").tag("league", "7").gauge().value());
+        release.countDown();
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        assertEquals(0, eventLoop.getQueueDepth());
+        assertEquals(1, meterRegistry.counter("draft.event-loop.tasks.failed").count());
+
+        eventLoop.close();
+        assertNull(meterRegistry.find("draft.event-loop.queue.depth").tag("league", "7").gauge());
+    }
+}
@@ -0,0 +1,118 @@
+package com.winwin.orbital.draft;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DraftFinalizerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DraftSessionManager draftSessionManager;
+
+    @Mock
+    private DraftWebSocketHandler draftWebSocketHandler;
+
+    @Mock
+    private DraftPickJournal draftPickJournal;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DraftFinalizer draftFinalizer;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        draftFinalizer = new DraftFinalizer(jdbcTemplate, transactionManager, draftSessionManager,
+                draftWebSocketHandler, draftPickJournal, meterRegistry, 3, 1);
+
+        ResultSet team = mock(ResultSet.class);
+        int[] row = new int[1];
+        when(team.getLong("manager_id")).thenAnswer(invocation -> row[0] == 0 ? 1L : 2L);
+        when(team.getLong("id")).thenAnswer(invocation -> row[0] == 0 ? 10L : 20L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            row[0] = 0;
+            handler.processRow(team);
+            row[0] = 1;
+            handler.processRow(team);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(1L));
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        draftFinalizer.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSquadsAreBatchInsertedBeforeCompletionIsSent() throws Exception {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+
+        draftFinalizer.submit(1L, Map.of(1L, List.of(100L, 101L), 2L, List.of(200L))).get();
+
+        InOrder inOrder = inOrder(jdbcTemplate, transactionManager, draftPickJournal, draftSessionManager, draftWebSocketHandler);
+        inOrder.verify(jdbcTemplate).batchUpdate(eq("INSERT INTO team_player (team_id, player_id) VALUES (?, ?)"), rows.capture());
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(draftPickJournal).clear(1L);
+        inOrder.verify(draftSessionManager).removeDraftSession(1L);
+        inOrder.verify(draftWebSocketHandler).sendDraftComplete(1L);
+        assertEquals(3, rows.getValue().size());
+        assertTrue(rows.getValue().stream().anyMatch(row -> row[0].equals(20L) && row[1].equals(200L)));
+        verify(jdbcTemplate).update("UPDATE league SET status = 'in season' WHERE id = ?", 1L);
+    }
+
+    @Test
+    public void testFailedSaveIsRetried() throws Exception {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new RuntimeException("database unavailable"))
+                .thenReturn(new int[]{1, 1});
+
+        draftFinalizer.submit(1L, Map.of(1L, List.of(100L), 2L, List.of(200L))).get();
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager).commit(any());
+        verify(draftPickJournal).clear(1L);
+        verify(draftWebSocketHandler).sendDraftComplete(1L);
+        assertEquals(1, meterRegistry.counter("draft.finalisations.failed").count());
+    }
+
+    @Test
+    public void testDraftIsMarkedFailedOnceEveryAttemptFails() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new RuntimeException("database unavailable"));
+
+        assertThrows(ExecutionException.class,
+                () -> draftFinalizer.submit(1L, Map.of(1L, List.of(100L), 2L, List.of(200L))).get());
+
+        verify(transactionManager, times(3)).rollback(any());
+        verify(jdbcTemplate).update("UPDATE league SET status = 'draft failed' WHERE id = ? AND status = 'drafting'", 1L);
+        verify(draftSessionManager).removeDraftSession(1L);
+        verifyNoInteractions(draftPickJournal, draftWebSocketHandler);
+        assertEquals(3, meterRegistry.counter("draft.finalisations.failed").count());
+        assertEquals(1, meterRegistry.counter("draft.finalisations.abandoned").count());
+    }
+}
@@ -0,0 +1,77 @@
+package com.winwin.orbital.draft;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DraftPickJournalTest {
+
+    @Mock
+    private DraftPickRepository draftPickRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DraftPickJournal draftPickJournal;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        draftPickJournal = new DraftPickJournal(draftPickRepository, meterRegistry, 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlushWritesPicksInBatches() {
+        ArgumentCaptor<List<DraftPick>> batches = ArgumentCaptor.forClass(List.class);
+        for (int turn = 0; turn < 3; turn++) {
+            draftPickJournal.append(new DraftPick(1L, turn, 1L, turn + 10L));
+        }
+
+        draftPickJournal.flush();
+
+        verify(draftPickRepository, times(2)).saveAll(batches.capture());
+        assertEquals(2, batches.getAllValues().get(0).size());
+        assertEquals(1, batches.getAllValues().get(1).size());
+        assertEquals(3, meterRegistry.counter("draft.journal.picks.written").count());
+        assertEquals(0, meterRegistry.get("draft.journal.picks.pending").gauge().value());
+    }
+
+    @Test
+    public void testFailedBatchIsRetriedOnNextFlush() {
+        when(draftPickRepository.saveAll(anyList()))
+                .thenThrow(new RuntimeException("database unavailable"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        draftPickJournal.append(new DraftPick(1L, 0, 1L, 10L));
+
+        draftPickJournal.flush();
+        assertEquals(1, meterRegistry.get("draft.journal.picks.pending").gauge().value());
+
+        draftPickJournal.flush();
+        assertEquals(0, meterRegistry.get("draft.journal.picks.pending").gauge().value());
+        assertEquals(1, meterRegistry.counter("draft.journal.picks.written").count());
+        assertEquals(1, meterRegistry.counter("draft.journal.flushes.failed").count());
+    }
+
+    @Test
+    public void testClearDropsQueuedPicksForLeague() {
+        draftPickJournal.append(new DraftPick(1L, 0, 1L, 10L));
+        draftPickJournal.append(new DraftPick(2L, 0, 2L, 20L));
+
+        draftPickJournal.clear(1L);
+        draftPickJournal.flush();
+
+        verify(draftPickRepository).deleteByLeagueId(1L);
+        verify(draftPickRepository).saveAll(argThat(batch -> batch instanceof List<?> list
+                && list.size() == 1 && ((DraftPick) list.get(0)).getLeagueId() == 2L));
+    }
+}
@@ -0,0 +1,69 @@
+package com.winwin.orbital.draft;
+
+import com.winwin.orbital.club.ClubRecord;
+import com.winwin.orbital.player.PlayerRecord;
+import com.winwin.orbital.player.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DraftPoolTest {
+
+    private final ClubRecord arsenal = club(1L);
+    private final ClubRecord chelsea = club(2L);
+
+    private final List<PlayerRecord> players = List.of(
+            player(10L, "goalkeeper", arsenal),
+            player(11L, "defender", chelsea),
+            player(12L, "defender", arsenal),
+            player(13L, "forward", chelsea),
+            player(14L, "coach", chelsea)
+    );
+
+    @Test
+    public void testTakenPlayersAreNoLongerAvailable() {
+        DraftPool draftPool = new DraftPool(players);
+
+        int index = draftPool.indexOfAvailable(12L);
+        draftPool.take(index);
+        draftPool.take(index);
+
+        assertEquals(2, index);
+        assertEquals(-1, draftPool.indexOfAvailable(12L));
+        assertEquals(-1, draftPool.indexOfAvailable(99L));
+        assertEquals(4, draftPool.getAvailableCount());
+        assertEquals(List.of(10L, 11L, 13L, 14L),
+                draftPool.getAvailablePlayers().stream().map(PlayerRecord::id).toList());
+    }
+
+    @Test
+    public void testCandidatesOnlyComeFromOpenPositionsAndClubs() {
+        DraftPool draftPool = new DraftPool(players);
+        draftPool.take(draftPool.indexOfAvailable(11L));
+        int arsenalIndex = draftPool.clubIndexOf(draftPool.indexOfAvailable(10L));
+
+        int[] candidates = draftPool.findCandidates(
+                position -> position != Position.FORWARD.ordinal(),
+                club -> club != arsenalIndex);
+        int[] anyCandidates = draftPool.findCandidates(position -> true, club -> true);
+
+        assertEquals(2, draftPool.getClubCount());
+        assertEquals(0, candidates.length);
+        assertFalse(draftPool.hasCandidates(position -> position != Position.FORWARD.ordinal(), club -> club != arsenalIndex));
+        assertTrue(draftPool.hasCandidates(position -> true, club -> true));
+        assertEquals(List.of(10L, 12L, 13L),
+                Arrays.stream(anyCandidates).mapToObj(i -> draftPool.get(i).id()).sorted().toList());
+        assertEquals(-1, draftPool.positionIndexOf(draftPool.indexOfAvailable(14L)));
+    }
+
+    private static ClubRecord club(long id) {
+        return new ClubRecord(id, "Club " + id, "C" + id);
+    }
+
+    private static PlayerRecord player(long id, String position, ClubRecord club) {
+        return new PlayerRecord(id, "First" + id, "Last" + id, position, true, club);
+    }
+}
@@ -0,0 +1,124 @@
+package com.winwin.orbital.draft;
+
+import com.winwin.orbital.league.League;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DraftSessionManagerTest {
+
+    private InMemoryDraftCoordinationStore coordinationStore;
+    private List<DraftSessionManager> nodes;
+
+    @BeforeEach
+    public void setUp() {
+        coordinationStore = new InMemoryDraftCoordinationStore();
+        nodes = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            DraftSessionManager node = new DraftSessionManager(coordinationStore, "node-" + i);
+            node.joinCluster();
+            nodes.add(node);
+        }
+    }
+
+    @Test
+    public void testEachDraftIsAssignedToExactlyOneNode() {
+        Map<String, Integer> draftsPerNode = new HashMap<>();
+        for (long leagueId = 1; leagueId <= 300; leagueId++) {
+            long finalLeagueId = leagueId;
+            List<DraftSessionManager> assigned = nodes.stream()
+                    .filter(node -> node.isAssignedToThisNode(finalLeagueId))
+                    .toList();
+
+            assertEquals(1, assigned.size());
+            for (DraftSessionManager node : nodes) {
+                assertEquals(assigned.get(0).getNodeId(), node.ownerOf(leagueId));
+            }
+            draftsPerNode.merge(assigned.get(0).getNodeId(), 1, Integer::sum);
+        }
+
+        assertEquals(3, draftsPerNode.size());
+    }
+
+    @Test
+    public void testLeavingNodeOnlyMovesItsOwnDrafts() {
+        Map<Long, String> before = new HashMap<>();
+        for (long leagueId = 1; leagueId <= 300; leagueId++) {
+            before.put(leagueId, nodes.get(0).ownerOf(leagueId));
+        }
+
+        nodes.get(2).leaveCluster();
+
+        for (long leagueId = 1; leagueId <= 300; leagueId++) {
+            String owner = nodes.get(0).ownerOf(leagueId);
+            assertNotEquals("node-3", owner);
+            if (!before.get(leagueId).equals("node-3")) {
+                assertEquals(before.get(leagueId), owner);
+            }
+        }
+    }
+
+    @Test
+    public void testCommandsAreForwardedToOwningNode() {
+        long leagueId = 7;
+        DraftSessionManager owner = assignedNode(leagueId);
+        DraftSessionManager other = nodes.stream().filter(node -> node != owner).findFirst().orElseThrow();
+        DraftSession draftSession = draftSession(leagueId);
+
+        assertTrue(owner.addDraftSession(draftSession));
+        assertFalse(other.addDraftSession(draftSession(leagueId)));
+
+        other.pickPlayer(leagueId, 3L, 42L);
+        other.sendDraftState(leagueId, "alice");
+
+        verify(draftSession).pickPlayer(3L, 42L);
+        verify(draftSession).sendDraftStateToUser("alice");
+        assertNull(other.getDraftSession(leagueId));
+    }
+
+    @Test
+    public void testReclaimingARunningDraftKeepsTheRunningSession() {
+        long leagueId = 7;
+        DraftSessionManager owner = assignedNode(leagueId);
+        DraftSession running = draftSession(leagueId);
+        DraftSession duplicate = draftSession(leagueId);
+        assertTrue(owner.addDraftSession(running));
+
+        assertFalse(owner.addDraftSession(duplicate));
+
+        assertSame(running, owner.getDraftSession(leagueId));
+        owner.pickPlayer(leagueId, 3L, 42L);
+        verify(running).pickPlayer(3L, 42L);
+        verify(running, never()).close();
+    }
+
+    @Test
+    public void testRemovingDraftReleasesOwnership() {
+        long leagueId = 7;
+        DraftSessionManager owner = assignedNode(leagueId);
+        DraftSessionManager other = nodes.stream().filter(node -> node != owner).findFirst().orElseThrow();
+        owner.addDraftSession(draftSession(leagueId));
+
+        owner.removeDraftSession(leagueId);
+
+        assertTrue(coordinationStore.getDraftOwner(leagueId).isEmpty());
+        assertTrue(other.addDraftSession(draftSession(leagueId)));
+        assertEquals(other.getNodeId(), owner.ownerOf(leagueId));
+    }
+
+    private DraftSessionManager assignedNode(long leagueId) {
+        return nodes.stream().filter(node -> node.isAssignedToThisNode(leagueId)).findFirst().orElseThrow();
+    }
+
+    private static DraftSession draftSession(long leagueId) {
+        League league = new League();
+        league.setId(leagueId);
+        DraftSession draftSession = mock(DraftSession.class);
+        when(draftSession.getLeague()).thenReturn(league);
+        return draftSession;
+    }
+}
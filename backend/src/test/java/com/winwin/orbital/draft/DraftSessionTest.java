@@ -0,0 +1,245 @@
+package com.winwin.orbital.draft;
+
+import com.winwin.orbital.club.ClubRecord;
+import com.winwin.orbital.league.League;
+import com.winwin.orbital.manager.Manager;
+import com.winwin.orbital.player.PlayerRecord;
+import com.winwin.orbital.team.Team;
+import com.winwin.orbital.user.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DraftSessionTest {
+
+    @Mock
+    private DraftWebSocketHandler draftWebSocketHandler;
+
+    @Mock
+    private DraftTurnTimer draftTurnTimer;
+
+    @Mock
+    private DraftPickJournal draftPickJournal;
+
+    @Mock
+    private DraftFinalizer draftFinalizer;
+
+    private League league;
+    private Manager manager1;
+    private Manager manager2;
+
+    @BeforeEach
+    public void setUp() {
+        league = new League("League", "ABCDEFGH");
+        league.setId(1L);
+        league.setMaxNumberOfPlayersFromAClub(1);
+        league.setDraftTurnDurationMilliseconds(60000);
+        manager1 = manager(1L, league);
+        manager2 = manager(2L, league);
+    }
+
+    @Test
+    public void testManagerThePoolCannotFillIsSkipped() {
+        ClubRecord club1 = club(1L);
+        DraftSession draftSession = draftSession(List.of(
+                player(1L, "goalkeeper", club1),
+                player(2L, "defender", club1),
+                player(3L, "goalkeeper", club(2L)),
+                player(4L, "defender", club(3L)),
+                player(5L, "midfielder", club1)));
+        long firstManagerId = draftSession.getManagers().get(0).getId();
+        long secondManagerId = draftSession.getManagers().get(1).getId();
+
+        draftSession.startDraft();
+        draftSession.pickPlayer(firstManagerId, 1L);
+        draftSession.pickPlayer(secondManagerId, 3L);
+        draftSession.pickPlayer(secondManagerId, 4L);
+
+        // Only club 1 players are left and the first manager already has one, so the turn passes straight back
+        assertFalse(draftSession.isDraftComplete());
+        assertEquals(secondManagerId, draftSession.getDraftState().getCurrentManager().getId());
+        assertEquals(5, draftSession.getTurn());
+
+        draftSession.pickPlayer(firstManagerId, 2L);
+        assertEquals(1, draftSession.getSelectedPlayers().get(firstManagerId).size());
+        verifyNoInteractions(draftFinalizer);
+    }
+
+    @Test
+    public void testAutoPickEndsTheDraftWhenNoManagerCanBeFilled() {
+        DraftSession draftSession = draftSession(List.of());
+
+        draftSession.startDraft();
+        draftSession.autoPickPlayer();
+        // A deadline that fires after the draft ended must not end it a second time
+        draftSession.autoPickPlayer();
+
+        assertTrue(draftSession.isDraftComplete());
+        verify(draftFinalizer).submit(1L, Map.of(1L, List.of(), 2L, List.of()));
+    }
+
+    @Test
+    public void testStaleDeadlineDoesNotAutoPick() {
+        PlayerRecord first = player(1L, "goalkeeper", club(1L));
+        DraftSession draftSession = draftSession(List.of(first, player(2L, "goalkeeper", club(2L)),
+                player(3L, "goalkeeper", club(3L))));
+        long firstManagerId = draftSession.getManagers().get(0).getId();
+        long secondManagerId = draftSession.getManagers().get(1).getId();
+        ArgumentCaptor<Runnable> deadlines = ArgumentCaptor.forClass(Runnable.class);
+
+        draftSession.startDraft();
+        draftSession.pickPlayer(firstManagerId, 1L);
+        verify(draftTurnTimer, times(2)).schedule(deadlines.capture(), eq(60000L));
+
+        deadlines.getAllValues().get(0).run();
+        assertTrue(draftSession.getSelectedPlayers().get(secondManagerId).isEmpty());
+
+        deadlines.getAllValues().get(1).run();
+        assertEquals(1, draftSession.getSelectedPlayers().get(secondManagerId).size());
+        assertFalse(draftSession.isDraftComplete());
+    }
+
+    @Test
+    public void testPicksAreBroadcastAsSequencedEvents() {
+        PlayerRecord first = player(1L, "goalkeeper", club(1L));
+        PlayerRecord second = player(2L, "goalkeeper", club(2L));
+        DraftSession draftSession = draftSession(List.of(first, second));
+        long firstManagerId = draftSession.getManagers().get(0).getId();
+        ArgumentCaptor<DraftEvent> events = ArgumentCaptor.forClass(DraftEvent.class);
+
+        draftSession.startDraft();
+        draftSession.pickPlayer(firstManagerId, 1L);
+
+        verify(draftWebSocketHandler, times(2)).sendDraftEvent(eq(1L), events.capture());
+        DraftEvent turn = events.getAllValues().get(0);
+        DraftEvent pick = events.getAllValues().get(1);
+        assertEquals(DraftEvent.Type.TURN, turn.getType());
+        assertEquals(1, turn.getSequence());
+        assertEquals(DraftEvent.Type.PICK, pick.getType());
+        assertEquals(2, pick.getSequence());
+        assertEquals(firstManagerId, pick.getPickedBy().getId());
+        assertEquals(1L, pick.getPlayer().getId());
+        verify(draftPickJournal).append(argThat(draftPick -> draftPick.getTurn() == 0
+                && draftPick.getManagerId() == firstManagerId
+                && draftPick.getPlayerId() == 1L));
+
+        DraftState draftState = draftSession.getDraftState();
+        assertEquals(2, draftState.getSequence());
+        assertEquals(1, draftState.getDraftPool().size());
+    }
+
+    @Test
+    public void testSnapshotIsSerializedOncePerEvent() {
+        DraftWebSocketHandler serializer = new DraftWebSocketHandler(null, new ObjectMapper());
+        when(draftWebSocketHandler.createSnapshot(any(DraftState.class)))
+                .thenAnswer(invocation -> serializer.createSnapshot(invocation.getArgument(0)));
+        DraftSession draftSession = draftSession(List.of(player(1L, "goalkeeper", club(1L)),
+                player(2L, "goalkeeper", club(2L))));
+        long firstManagerId = draftSession.getManagers().get(0).getId();
+
+        draftSession.startDraft();
+        draftSession.sendDraftStateToUser("manager1");
+        draftSession.sendDraftStateToUser("manager2");
+        DraftSnapshot beforePick = draftSession.getDraftSnapshot();
+        draftSession.pickPlayer(firstManagerId, 1L);
+        DraftSnapshot afterPick = draftSession.getDraftSnapshot();
+
+        verify(draftWebSocketHandler, times(2)).createSnapshot(any(DraftState.class));
+        verify(draftWebSocketHandler).sendDraftSnapshotToUser(eq(1L), same(beforePick), anyLong(), eq("manager1"));
+        verify(draftWebSocketHandler).sendDraftSnapshotToUser(eq(1L), same(beforePick), anyLong(), eq("manager2"));
+        assertEquals(1, beforePick.getSequence());
+        assertEquals(2, afterPick.getSequence());
+    }
+
+    @Test
+    public void testResumeDraftReplaysJournaledPicks() {
+        DraftSession draftSession = draftSession(List.of(
+                player(1L, "goalkeeper", club(1L)),
+                player(2L, "goalkeeper", club(2L)),
+                player(3L, "goalkeeper", club(3L))));
+        long firstManagerId = draftSession.getManagers().get(0).getId();
+        long secondManagerId = draftSession.getManagers().get(1).getId();
+
+        // The second manager's first turn was skipped, so their journaled pick is on turn 2
+        draftSession.resumeDraft(List.of(
+                new DraftPick(1L, 0, firstManagerId, 1L),
+                new DraftPick(1L, 2, secondManagerId, 3L)));
+
+        assertEquals(List.of(1L), draftSession.getSelectedPlayers().get(firstManagerId).stream().map(PlayerRecord::id).toList());
+        assertEquals(List.of(3L), draftSession.getSelectedPlayers().get(secondManagerId).stream().map(PlayerRecord::id).toList());
+        assertEquals(3, draftSession.getTurn());
+        assertEquals(1, draftSession.getDraftState().getDraftPool().size());
+        assertEquals(firstManagerId, draftSession.getDraftState().getCurrentManager().getId());
+        verify(draftPickJournal, never()).append(any());
+        verify(draftTurnTimer).schedule(any(Runnable.class), eq(60000L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCompletedDraftIsHandedToFinalizer() {
+        league.setMaxNumberOfPlayersFromAClub(15);
+        List<PlayerRecord> draftPool = new ArrayList<>();
+        String[] positions = {"goalkeeper", "defender", "midfielder", "forward"};
+        int[] perTeam = {2, 5, 5, 3};
+        for (int position = 0; position < positions.length; position++) {
+            for (int i = 0; i < perTeam[position] * 2; i++) {
+                draftPool.add(player(draftPool.size() + 1, positions[position], club(1L)));
+            }
+        }
+        DraftSession draftSession = draftSession(draftPool);
+        ArgumentCaptor<Map<Long, List<Long>>> squads = ArgumentCaptor.forClass(Map.class);
+
+        draftSession.startDraft();
+        for (int i = 0; i < draftPool.size(); i++) {
+            draftSession.autoPickPlayer();
+        }
+
+        assertTrue(draftSession.isDraftComplete());
+        verify(draftFinalizer).submit(eq(1L), squads.capture());
+        assertEquals(15, squads.getValue().get(1L).size());
+        assertEquals(15, squads.getValue().get(2L).size());
+        verify(draftWebSocketHandler, never()).sendDraftComplete(anyLong());
+    }
+
+    private DraftSession draftSession(List<PlayerRecord> draftPool) {
+        // Run each event loop task on the calling thread so the test sees the draft state as soon as a call returns
+        DraftEventLoopGroup eventLoopGroup = new DraftEventLoopGroup(new SimpleMeterRegistry(), Runnable::run);
+        return new DraftSession(league, draftPool, null, draftWebSocketHandler, null, draftTurnTimer, eventLoopGroup,
+                draftPickJournal, draftFinalizer);
+    }
+
+    private static Manager manager(long id, League league) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("manager" + id);
+        Manager manager = new Manager();
+        manager.setId(id);
+        manager.setUser(user);
+        Team team = new Team(manager, league);
+        team.setId(id);
+        league.getTeams().add(team);
+        return manager;
+    }
+
+    private static ClubRecord club(long id) {
+        return new ClubRecord(id, "Club " + id, "C" + id);
+    }
+
+    private static PlayerRecord player(long id, String position, ClubRecord club) {
+        return new PlayerRecord(id, "First" + id, "Last" + id, position, true, club);
+    }
+}
@@ -0,0 +1,76 @@
+package com.winwin.orbital.draft;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DraftTurnTimerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DraftTurnTimer draftTurnTimer;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        draftTurnTimer = new DraftTurnTimer(meterRegistry, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        draftTurnTimer.shutdown();
+    }
+
+    @Test
+    public void testDeadlineFiresAndRecordsLag() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+
+        draftTurnTimer.schedule(latch::countDown, 10);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.counter("draft.turn.deadlines.scheduled").count());
+        waitForCount("draft.turn.deadlines.fired", 1);
+        assertEquals(1, meterRegistry.timer("draft.turn.deadlines.lag").count());
+    }
+
+    @Test
+    public void testCancelledDeadlineDoesNotFire() throws InterruptedException {
+        AtomicBoolean ran = new AtomicBoolean();
+
+        DraftTurnTimer.Deadline deadline = draftTurnTimer.schedule(() -> ran.set(true), 200);
+        assertTrue(deadline.getRemainingMilliseconds() > 0);
+        deadline.cancel();
+        deadline.cancel();
+        Thread.sleep(400);
+
+        assertFalse(ran.get());
+        assertEquals(1, meterRegistry.counter("draft.turn.deadlines.cancelled").count());
+        assertEquals(0, meterRegistry.counter("draft.turn.deadlines.fired").count());
+    }
+
+    @Test
+    public void testFailingDeadlineDoesNotStopLaterDeadlines() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+
+        draftTurnTimer.schedule(() -> {
+            throw new IllegalArgumentException("bound must be positive");
+        }, 0);
+        draftTurnTimer.schedule(latch::countDown, 50);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.counter("draft.turn.deadlines.failed").count());
+    }
+
+    private void waitForCount(String counter, double expected) throws InterruptedException {
+        for (int i = 0; i < 100 && meterRegistry.counter(counter).count() < expected; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, meterRegistry.counter(counter).count());
+    }
+}
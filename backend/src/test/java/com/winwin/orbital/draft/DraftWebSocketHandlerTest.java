@@ -0,0 +1,65 @@
+package com.winwin.orbital.draft;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.winwin.orbital.manager.ManagerDto;
+import com.winwin.orbital.player.PlayerDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DraftWebSocketHandlerTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private DraftWebSocketHandler draftWebSocketHandler;
+
+    @BeforeEach
+    public void setUp() {
+        draftWebSocketHandler = new DraftWebSocketHandler(messagingTemplate, objectMapper);
+    }
+
+    @Test
+    public void testSnapshotIsSentAsJsonWithCurrentRemainingTime() throws IOException {
+        when(messagingTemplate.getUserDestinationPrefix()).thenReturn("/user/");
+        ManagerDto manager = new ManagerDto();
+        manager.setId(1L);
+        manager.setUsername("alice");
+        DraftState draftState = new DraftState(manager, new ManagerDto(), Map.of(manager, List.<PlayerDto>of()),
+                List.of(), "alice picked Saka (ARS)", 30000, 4);
+
+        DraftSnapshot draftSnapshot = draftWebSocketHandler.createSnapshot(draftState);
+        draftWebSocketHandler.sendDraftSnapshotToUser(9L, draftSnapshot, 1234, "alice");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Message<byte[]>> message = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/user/alice/topic/draft/9"), message.capture());
+        assertEquals(MimeTypeUtils.APPLICATION_JSON, message.getValue().getHeaders().get(MessageHeaders.CONTENT_TYPE));
+
+        JsonNode json = objectMapper.readTree(message.getValue().getPayload());
+        assertEquals(1234, json.get("remainingTime").asLong());
+        assertEquals(4, json.get("sequence").asLong());
+        assertEquals("alice", json.get("currentManager").get("username").asText());
+        assertEquals("alice picked Saka (ARS)", json.get("lastPickMessage").asText());
+        assertTrue(json.get("selectedPlayers").has("ManagerDto(id=1, username=alice)"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.winwin.orbital.gameweek;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class GameweekComponentTest {
+
+    private GameweekScheduleRepository gameweekScheduleRepository;
+    private GameweekComponent gameweekComponent;
+
+    @BeforeEach
+    public void setup() {
+        gameweekScheduleRepository = mock(GameweekScheduleRepository.class);
+        gameweekComponent = new GameweekComponent(gameweekScheduleRepository, "23/24", 1, 60000);
+    }
+
+    @Test
+    public void testCurrentGameweekIsTheFirstOneNotOverAndIsCached() {
+        when(gameweekScheduleRepository.findFirstByEndsAtAfterOrderByEndsAtAsc(any()))
+                .thenReturn(Optional.of(new GameweekSchedule("24/25", 7, LocalDateTime.now().plusDays(2))));
+
+        assertEquals(7, gameweekComponent.getCurrentGameweek());
+        assertEquals("24/25", gameweekComponent.getCurrentSeason());
+        verify(gameweekScheduleRepository, times(1)).findFirstByEndsAtAfterOrderByEndsAtAsc(any());
+    }
+
+    @Test
+    public void testCurrentGameweekFollowsTheLastOneOnceTheScheduleIsOver() {
+        when(gameweekScheduleRepository.findFirstByEndsAtAfterOrderByEndsAtAsc(any())).thenReturn(Optional.empty());
+        when(gameweekScheduleRepository.findFirstByOrderByEndsAtDesc())
+                .thenReturn(Optional.of(new GameweekSchedule("24/25", 38, LocalDateTime.now().minusDays(1))));
+
+        assertEquals(39, gameweekComponent.getCurrentGameweek());
+    }
+
+    @Test
+    public void testEmptyScheduleFallsBackToTheConfiguredGameweek() {
+        when(gameweekScheduleRepository.findFirstByEndsAtAfterOrderByEndsAtAsc(any())).thenReturn(Optional.empty());
+        when(gameweekScheduleRepository.findFirstByOrderByEndsAtDesc()).thenReturn(Optional.empty());
+
+        assertEquals(1, gameweekComponent.getCurrentGameweek());
+        assertEquals("23/24", gameweekComponent.getCurrentSeason());
+    }
+}
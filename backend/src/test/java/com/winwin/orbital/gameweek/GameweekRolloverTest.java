@@ -0,0 +1,182 @@
+package com.winwin.orbital.gameweek;
+
+import com.winwin.orbital.league.League;
+import com.winwin.orbital.league.LeagueRepository;
+import com.winwin.orbital.lineup.Lineup;
+import com.winwin.orbital.lineup.PastLineupDto;
+import com.winwin.orbital.playerperformance.GameweekPerformanceStamp;
+import com.winwin.orbital.playerperformance.PlayerPerformance;
+import com.winwin.orbital.playerperformance.PlayerPerformanceRepository;
+import com.winwin.orbital.team.TeamDataDto;
+import com.winwin.orbital.team.TeamRepository;
+import com.winwin.orbital.team.TeamService;
+import com.winwin.orbital.teamgameweekscore.TeamGameweekScore;
+import com.winwin.orbital.teamgameweekscore.TeamGameweekScoreRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rolls over the seeded gameweeks against an in-memory database and checks that reads afterwards only use the
+ * stored results, that concurrent rollovers score each gameweek once, and that changed gameweeks are rescored.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:gameweek-rollover;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "gameweek.rollover.check-interval-ms=3600000",
+        "gameweek.rollover.chunk-size=1",
+        "jwt.secret=c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0",
+        "jwt.expiration=3600000",
+        "jwt.header=Authorization",
+        "frontend.url=http://localhost"
+})
+public class GameweekRolloverTest {
+
+    @Autowired
+    private GameweekRollover gameweekRollover;
+
+    @Autowired
+    private GameweekComponent gameweekComponent;
+
+    @Autowired
+    private GameweekScheduleRepository gameweekScheduleRepository;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private LeagueRepository leagueRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TeamGameweekScoreRepository teamGameweekScoreRepository;
+
+    @Autowired
+    private PlayerPerformanceRepository playerPerformanceRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void testRolloverScoresEndedGameweeksAheadOfReads() {
+        assertEquals("24/25", gameweekComponent.getCurrentSeason());
+        assertEquals(5, gameweekComponent.getCurrentGameweek());
+
+        gameweekRollover.rollOverEndedGameweeks();
+
+        List<GameweekSchedule> schedule = gameweekScheduleRepository.findAll();
+        schedule.forEach(gameweek -> assertEquals(gameweek.getGameweek() < 5, gameweek.getRolledOverAt() != null,
+                "gameweek " + gameweek.getGameweek()));
+
+        League league = leagueRepository.findByCode("XXXXXXXX").orElseThrow();
+        UserDetails userDetails = User.withUsername("userA").password("").roles("USER").build();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<TeamDataDto> teamsData = teamService.getAllTeamsData(league.getId(), userDetails);
+        Map<String, Integer> remainingPowerups = teamService.getCurrentTeamRemainingPowerups(userDetails, league.getId());
+
+        for (TeamDataDto teamData : teamsData) {
+            assertEquals(96, teamData.getPoints());
+            assertEquals(4, teamData.getPastLineups().size());
+            assertEquals(96, teamData.getPastLineups().stream().mapToLong(PastLineupDto::getPoints).sum());
+        }
+        assertEquals(0, statistics.getEntityInsertCount() + statistics.getEntityUpdateCount(),
+                "reads after the rollover recomputed stored results");
+        assertEquals(0, statistics.getEntityStatistics(PlayerPerformance.class.getName()).getLoadCount(),
+                "past lineups were rescored from player performances");
+        assertEquals(0, statistics.getCollectionStatistics(Lineup.class.getName() + ".startingPlayers").getLoadCount(),
+                "past lineups were rebuilt from the lineups");
+        assertEquals(Map.of("bboost", 0, "cx3", 2), remainingPowerups);
+    }
+
+    @Test
+    public void testConcurrentRolloversScoreEachGameweekOnce() throws Exception {
+        List<GameweekSchedule> schedule = gameweekScheduleRepository.findAll();
+        schedule.forEach(gameweek -> gameweek.setRolledOverAt(null));
+        gameweekScheduleRepository.saveAll(schedule);
+        double failedBefore = meterRegistry.counter("gameweek.rollovers.failed").count();
+
+        League league = leagueRepository.findByCode("XXXXXXXX").orElseThrow();
+        UserDetails userDetails = User.withUsername("userA").password("").roles("USER").build();
+        ExecutorService nodes = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (int node = 0; node < 2; node++) {
+                runs.add(nodes.submit(() -> gameweekRollover.rollOverEndedGameweeks()));
+                runs.add(nodes.submit(() -> teamService.getAllTeamsData(league.getId(), userDetails)));
+            }
+            for (Future<?> run : runs) {
+                run.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            nodes.shutdownNow();
+        }
+
+        assertEquals(failedBefore, meterRegistry.counter("gameweek.rollovers.failed").count());
+        List<TeamGameweekScore> scores = teamGameweekScoreRepository.findBySeason("24/25");
+        assertEquals(teamRepository.findInSeasonWithScoringRules().size() * 4, scores.size());
+        assertEquals(scores.size(), scores.stream()
+                .map(score -> score.getTeam().getId() + "/" + score.getGameweek())
+                .distinct()
+                .count());
+        for (TeamDataDto teamData : teamService.getAllTeamsData(league.getId(), userDetails)) {
+            assertEquals(96, teamData.getPoints());
+        }
+    }
+
+    @Test
+    public void testChangedPerformancesAreRescoredOnTheNextCheck() {
+        gameweekRollover.rollOverEndedGameweeks();
+
+        PlayerPerformance performance = playerPerformanceRepository.findWithPlayerBySeasonAndGameweek("24/25", 2).get(0);
+        performance.setUpdatedAt(LocalDateTime.now());
+        playerPerformanceRepository.save(performance);
+        GameweekPerformanceStamp stamp = playerPerformanceRepository.findGameweekStampsBySeason("24/25").stream()
+                .filter(gameweekStamp -> gameweekStamp.gameweek() == 2)
+                .findFirst()
+                .orElseThrow();
+        TeamGameweekScore missingScore = teamGameweekScoreRepository.findBySeason("24/25").stream()
+                .filter(score -> score.getGameweek() == 3)
+                .findFirst()
+                .orElseThrow();
+        teamGameweekScoreRepository.delete(missingScore);
+
+        gameweekRollover.rollOverEndedGameweeks();
+
+        List<TeamGameweekScore> scores = teamGameweekScoreRepository.findBySeason("24/25");
+        assertEquals(teamRepository.findInSeasonWithScoringRules().size() * 4, scores.size());
+        scores.stream()
+                .filter(score -> score.getGameweek() == 2)
+                .forEach(score -> assertTrue(stamp.matches(score.getPerformanceCount(), score.getPerformanceUpdatedAt())));
+        League league = leagueRepository.findByCode("XXXXXXXX").orElseThrow();
+        UserDetails userDetails = User.withUsername("userA").password("").roles("USER").build();
+        for (TeamDataDto teamData : teamService.getAllTeamsData(league.getId(), userDetails)) {
+            assertEquals(96, teamData.getPoints());
+            assertEquals(4, teamData.getPastLineups().size());
+        }
+    }
+}
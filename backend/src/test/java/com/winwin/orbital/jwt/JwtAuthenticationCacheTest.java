@@ -0,0 +1,118 @@
+package com.winwin.orbital.jwt;
+
+import com.winwin.orbital.manager.Manager;
+import com.winwin.orbital.user.User;
+import com.winwin.orbital.userdetails.JwtPrincipal;
+import com.winwin.orbital.userdetails.UserDetailsImpl;
+import com.winwin.orbital.userdetails.UserDetailsServiceImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class JwtAuthenticationCacheTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtUtils jwtUtils = new JwtUtils(SECRET, 60000);
+    private UserDetailsServiceImpl userDetailsService;
+
+    @BeforeEach
+    public void setUp() {
+        userDetailsService = mock(UserDetailsServiceImpl.class);
+        when(userDetailsService.loadUserByUsername(anyString()))
+                .thenAnswer(invocation -> userDetails(invocation.getArgument(0)));
+    }
+
+    @Test
+    public void testVerifiedTokenIsCachedUntilTtl() {
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(jwtUtils, userDetailsService, meterRegistry, 60000, 10);
+        String token = token("alice");
+
+        UserDetails userDetails = cache.getUserDetails(token);
+        assertSame(userDetails, cache.getUserDetails(token));
+        assertEquals(1, meterRegistry.counter("jwt.cache.hits").count());
+        assertEquals(1, meterRegistry.counter("jwt.cache.misses").count());
+
+        JwtAuthenticationCache expiring = new JwtAuthenticationCache(jwtUtils, userDetailsService, meterRegistry, 0, 10);
+        expiring.getUserDetails(token);
+        expiring.getUserDetails(token);
+        assertEquals(3, meterRegistry.counter("jwt.cache.misses").count());
+    }
+
+    @Test
+    public void testPrincipalIsBuiltFromClaimsWithoutUserLookup() {
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(jwtUtils, userDetailsService, meterRegistry, 60000, 10);
+
+        JwtPrincipal principal = assertInstanceOf(JwtPrincipal.class, cache.getUserDetails(token("alice")));
+
+        assertEquals(7L, principal.getUserId());
+        assertEquals(70L, principal.getManagerId());
+        assertEquals("alice", principal.getUsername());
+        assertEquals("ROLE_USER", principal.getAuthorities().iterator().next().getAuthority());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    public void testTokenWithoutClaimsFallsBackToUserLookup() {
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(jwtUtils, userDetailsService, meterRegistry, 60000, 10);
+        String token = Jwts.builder()
+                .subject("alice")
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)))
+                .compact();
+
+        assertInstanceOf(UserDetailsImpl.class, cache.getUserDetails(token));
+        verify(userDetailsService).loadUserByUsername("alice");
+    }
+
+    @Test
+    public void testInvalidTokenIsRejectedAndNotCached() {
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(jwtUtils, userDetailsService, meterRegistry, 60000, 10);
+        String token = token("alice");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertNull(cache.getUserDetails(tampered));
+        assertNull(cache.getUserDetails("not a token"));
+        assertEquals(0, cache.size());
+        assertNull(jwtUtils.getVerifiedClaims(tampered));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    public void testCacheStaysWithinMaxSize() {
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(jwtUtils, userDetailsService, meterRegistry, 60000, 2);
+
+        for (String username : new String[]{"alice", "bob", "carol"}) {
+            assertEquals(username, cache.getUserDetails(token(username)).getUsername());
+        }
+
+        assertEquals(2, cache.size());
+    }
+
+    private String token(String username) {
+        UserDetails userDetails = userDetails(username);
+        return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    private static UserDetails userDetails(String username) {
+        User user = new User();
+        user.setId(7);
+        user.setUsername(username);
+        Manager manager = new Manager();
+        manager.setId(70);
+        user.setManager(manager);
+        user.setRole("ROLE_USER");
+        return new UserDetailsImpl(user);
+    }
+}
@@ -0,0 +1,42 @@
+package com.winwin.orbital.league;
+
+import com.winwin.orbital.team.TeamRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class LeagueMembershipTest {
+
+    private final TeamRepository teamRepository = mock(TeamRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LeagueMembership leagueMembership = new LeagueMembership(teamRepository, meterRegistry, 60000, 10);
+
+    @Test
+    public void testMembershipIsCachedUntilInvalidated() {
+        when(teamRepository.findIdByManagerIdAndLeagueId(1L, 2L)).thenReturn(Optional.of(3L));
+
+        assertEquals(Optional.of(3L), leagueMembership.findTeamId(1L, 2L));
+        leagueMembership.requireMember(1L, 2L);
+        verify(teamRepository, times(1)).findIdByManagerIdAndLeagueId(1L, 2L);
+        assertEquals(1, meterRegistry.counter("league.membership.cache.hits").count());
+
+        leagueMembership.invalidate(1L, 2L);
+        leagueMembership.requireMember(1L, 2L);
+        verify(teamRepository, times(2)).findIdByManagerIdAndLeagueId(1L, 2L);
+    }
+
+    @Test
+    public void testNonMemberIsDeniedAndNotCached() {
+        when(teamRepository.findIdByManagerIdAndLeagueId(1L, 2L)).thenReturn(Optional.empty(), Optional.of(3L));
+
+        assertThrows(AccessDeniedException.class, () -> leagueMembership.requireMember(1L, 2L));
+        leagueMembership.requireMember(1L, 2L);
+
+        assertEquals(2, meterRegistry.counter("league.membership.cache.misses").count());
+    }
+}
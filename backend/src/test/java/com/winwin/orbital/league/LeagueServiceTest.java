@@ -1,23 +1,28 @@
 package com.winwin.orbital.league;
 
+import com.winwin.orbital.exception.InvalidFieldSelectionException;
 import com.winwin.orbital.exception.LeagueNotFoundException;
 import com.winwin.orbital.exception.ManagerAlreadyInLeagueException;
 import com.winwin.orbital.exception.UnauthorizedException;
+import com.winwin.orbital.gameweek.GameweekComponent;
 import com.winwin.orbital.manager.Manager;
 import com.winwin.orbital.manager.ManagerRepository;
 import com.winwin.orbital.player.PlayerRepository;
 import com.winwin.orbital.scoringrule.ScoringRuleDto;
 import com.winwin.orbital.team.Team;
 import com.winwin.orbital.user.User;
+import com.winwin.orbital.userdetails.JwtPrincipal;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.userdetails.UserDetails;
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -34,6 +39,12 @@ public class LeagueServiceTest {
     @Mock
     private PlayerRepository playerRepository;
 
+    @Mock
+    private LeagueMembership leagueMembership;
+
+    @Mock
+    private GameweekComponent gameweekComponent;
+
     @InjectMocks
     private LeagueService leagueService;
 
@@ -83,6 +94,7 @@ public class LeagueServiceTest {
         assertEquals(2, createdLeague.getPowerUps().size());
         assertEquals("Test Team", createdLeague.getTeams().iterator().next().getName());
         assertEquals(manager, createdLeague.getAdmin());
+        verify(leagueMembership).invalidate(manager.getId(), createdLeague.getId());
 
         assertNotNull(createdLeague.getScoringRule());
         assertEquals(1, createdLeague.getScoringRule().getFor60Mins());
@@ -102,6 +114,59 @@ public class LeagueServiceTest {
         assertEquals(-5, createdLeague.getScoringRule().getForOwnGoal());
     }
 
+    @Test
+    public void testGetLeagueName_ManagerNotInLeague() {
+        UserDetails userDetails = new JwtPrincipal(1L, 10L, "testUser", "USER");
+
+        League league = new League();
+        league.setId(1L);
+        league.setName("Test League");
+        when(leagueRepository.findById(1L)).thenReturn(Optional.of(league));
+        doThrow(new AccessDeniedException("Current manager is not in the league."))
+                .when(leagueMembership).requireMember(10L, 1L);
+
+        assertThrows(AccessDeniedException.class, () -> leagueService.getLeagueName(1L, userDetails));
+        verifyNoInteractions(managerRepository);
+
+        doNothing().when(leagueMembership).requireMember(10L, 1L);
+        assertEquals("Test League", leagueService.getLeagueName(1L, userDetails));
+    }
+
+    @Test
+    public void testGetOverview_SelectedFields() {
+        UserDetails userDetails = new JwtPrincipal(1L, 10L, "testUser", "USER");
+
+        User user = new User();
+        user.setUsername("testUser");
+        Manager manager = new Manager();
+        manager.setId(10L);
+        manager.setUser(user);
+
+        League league = new League("Test League", "testCode");
+        league.setId(1L);
+        league.setStatus("in season");
+        league.setAdmin(manager);
+        league.setMaxNumberOfPlayersFromAClub(3);
+        Team team = new Team(manager, league);
+        team.setId(5L);
+        league.getTeams().add(team);
+        when(leagueRepository.findOverviewById(1L)).thenReturn(Optional.of(league));
+
+        LeagueOverviewDto overview = leagueService.getOverview(1L, Set.of("name", "maxPlayersSameClub", "teams"), userDetails);
+
+        assertEquals("Test League", overview.getName());
+        assertEquals(3L, overview.getMaxPlayersSameClub());
+        assertEquals(5L, overview.getTeams().get(0).getId());
+        assertNull(overview.getDraftInfo());
+        assertNull(overview.getStatus());
+        verifyNoInteractions(leagueMembership, gameweekComponent);
+
+        assertThrows(InvalidFieldSelectionException.class,
+                () -> leagueService.getOverview(1L, Set.of("code"), userDetails));
+        assertThrows(AccessDeniedException.class,
+                () -> leagueService.getOverview(1L, Set.of(), new JwtPrincipal(2L, 20L, "otherUser", "USER")));
+    }
+
     @Test
     public void testCreateLeague_WithBlankTeamName() {
         UserDetails userDetails = mock(UserDetails.class);
@@ -39,22 +39,18 @@ public class LineupServiceTest {
 
     @Test
     public void testPlayedInGameweek_PlayerDidNotPlay() {
-        Player player = new Player();
-        when(playerPerformanceRepository.findByPlayerAndGameweekAndSeason(player, 1, "2024"))
-                .thenReturn(Optional.empty());
+        PlayerPerformance playerPerformance = new PlayerPerformance();
 
-        assertFalse(lineupService.playedInGameweek(player, 1, "2024"));
+        assertFalse(lineupService.playedInGameweek(1L, Map.of()));
+        assertFalse(lineupService.playedInGameweek(1L, Map.of(1L, playerPerformance)));
     }
 
     @Test
     public void testPlayedInGameweek_PlayerPlayed() {
-        Player player = new Player();
         PlayerPerformance playerPerformance = new PlayerPerformance();
         playerPerformance.setMinutesPlayed(90);
-        when(playerPerformanceRepository.findByPlayerAndGameweekAndSeason(player, 1, "2024"))
-                .thenReturn(Optional.of(playerPerformance));
 
-        assertTrue(lineupService.playedInGameweek(player, 1, "2024"));
+        assertTrue(lineupService.playedInGameweek(1L, Map.of(1L, playerPerformance)));
     }
 
     @Test
@@ -66,9 +62,8 @@ public class LineupServiceTest {
         substitutePlayer.setId(100L);
         substitutePlayer.setPosition("goalkeeper");
 
-        when(playerRepository.findById(100L)).thenReturn(Optional.of(substitutePlayer));
-
-        Optional<Player> substitute = lineupService.findSubstituteWithPosition("goalkeeper", substitutes);
+        Optional<Player> substitute = lineupService.findSubstituteWithPosition("goalkeeper", substitutes,
+                Map.of(100L, substitutePlayer));
         assertTrue(substitute.isPresent());
         assertEquals("goalkeeper", substitute.get().getPosition());
     }
@@ -78,9 +73,7 @@ public class LineupServiceTest {
         Map<Integer, Long> substitutes = new HashMap<>();
         substitutes.put(1, 100L);
 
-        when(playerRepository.findById(100L)).thenReturn(Optional.empty());
-
-        Optional<Player> substitute = lineupService.findSubstituteWithPosition("goalkeeper", substitutes);
+        Optional<Player> substitute = lineupService.findSubstituteWithPosition("goalkeeper", substitutes, Map.of());
         assertFalse(substitute.isPresent());
     }
 
@@ -102,13 +95,12 @@ public class LineupServiceTest {
         substitutePlayer.setPosition("defender");
         lineup.getSubstitutes().put(1, 2L);
 
-        when(playerPerformanceRepository.findByPlayerAndGameweekAndSeason(player1, 1, "2024"))
-                .thenReturn(Optional.empty());
+        PlayerPerformance substitutePerformance = new PlayerPerformance();
+        substitutePerformance.setPlayer(substitutePlayer);
+        when(playerPerformanceRepository.findByPlayerIdInAndGameweekAndSeason(Set.of(1L, 2L), 1, "2024"))
+                .thenReturn(List.of(substitutePerformance));
 
-        when(playerPerformanceRepository.findByPlayerAndGameweekAndSeason(substitutePlayer, 1, "2024"))
-                .thenReturn(Optional.of(new PlayerPerformance()));
-
-        when(playerRepository.findById(2L)).thenReturn(Optional.of(substitutePlayer));
+        when(playerRepository.findAllById(Set.of(2L))).thenReturn(List.of(substitutePlayer));
 
         Set<Player> finalLineup = lineupService.calculateFinalLineup(lineup);
         assertEquals(1, finalLineup.size());
@@ -136,26 +128,22 @@ public class LineupServiceTest {
         lineup.setViceCaptain(player2);
 
         PlayerPerformance playerPerformance1 = new PlayerPerformance();
+        playerPerformance1.setPlayer(player1);
         playerPerformance1.setMinutesPlayed(90);
-        when(playerPerformanceRepository.findByPlayerAndGameweekAndSeason(player1, 1, "2024"))
-                .thenReturn(Optional.of(playerPerformance1));
 
         PlayerPerformance playerPerformance2 = new PlayerPerformance();
+        playerPerformance2.setPlayer(player2);
         playerPerformance2.setMinutesPlayed(90);
-        when(playerPerformanceRepository.findByPlayerAndGameweekAndSeason(player2, 1, "2024"))
-                .thenReturn(Optional.of(playerPerformance2));
+        when(playerPerformanceRepository.findByPlayerIdInAndGameweekAndSeason(Set.of(1L, 2L), 1, "2024"))
+                .thenReturn(List.of(playerPerformance1, playerPerformance2));
 
         when(playerPerformanceService.calculatePointsInLeague(any(), any()))
                 .thenReturn(10);
 
-        when(playerRepository.findById(2L)).thenReturn(Optional.of(player2));
-
         League league = new League();
         lineup.setTeam(new Team());
         lineup.getTeam().setLeague(league);
 
-        when(playerRepository.findById(anyLong())).thenReturn(Optional.of(new Player()));
-
         Map<Long, Integer> pointsMap = lineupService.calculatePointsForPlayers(lineup);
         assertEquals(30, pointsMap.get(1L));
         assertEquals(10, pointsMap.get(2L));
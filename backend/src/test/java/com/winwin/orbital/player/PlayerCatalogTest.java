@@ -0,0 +1,85 @@
+package com.winwin.orbital.player;
+
+import com.winwin.orbital.club.Club;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PlayerCatalogTest {
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @InjectMocks
+    private PlayerCatalog playerCatalog;
+
+    private Club arsenal;
+
+    @BeforeEach
+    public void setUp() {
+        arsenal = new Club();
+        arsenal.setId(1L);
+        arsenal.setName("Arsenal");
+        arsenal.setShortName("ARS");
+    }
+
+    @Test
+    public void testCatalogIsLoadedOnceWithSharedClubs() {
+        when(playerRepository.findAllWithClub()).thenReturn(List.of(
+                player(2L, "Bukayo", "Saka", true),
+                player(1L, "David", "Raya", true),
+                player(3L, "Kieran", "Tierney", false)));
+
+        List<PlayerRecord> available = playerCatalog.getAvailablePlayers();
+        PlayerRecord tierney = playerCatalog.findById(3L).orElseThrow();
+
+        assertEquals(List.of(1L, 2L), available.stream().map(PlayerRecord::id).toList());
+        assertSame(available.get(0).club(), available.get(1).club());
+        assertSame(available.get(0).club(), tierney.club());
+        assertEquals("ARS", tierney.club().shortName());
+        assertTrue(playerCatalog.findById(4L).isEmpty());
+        verify(playerRepository, times(1)).findAllWithClub();
+    }
+
+    @Test
+    public void testInvalidateReloadsOnNextUse() {
+        when(playerRepository.findAllWithClub())
+                .thenReturn(List.of(player(1L, "David", "Raya", true)))
+                .thenReturn(List.of(player(1L, "David", "Raya", true), player(2L, "Bukayo", "Saka", true)));
+
+        assertEquals(1, playerCatalog.getAvailablePlayers().size());
+        playerCatalog.invalidate();
+
+        assertEquals(2, playerCatalog.getAvailablePlayers().size());
+        verify(playerRepository, times(2)).findAllWithClub();
+    }
+
+    @Test
+    public void testToDtoFallsBackToEntityForPlayersMissingFromCatalog() {
+        when(playerRepository.findAllWithClub()).thenReturn(List.of(player(1L, "David", "Raya", true)));
+
+        PlayerDto fromCatalog = playerCatalog.toDto(player(1L, "Stale", "Name", true));
+        PlayerDto fromEntity = playerCatalog.toDto(player(5L, "Declan", "Rice", true));
+
+        assertEquals("Raya", fromCatalog.getLastName());
+        assertEquals("ARS", fromCatalog.getClubShortName());
+        assertEquals("Rice", fromEntity.getLastName());
+    }
+
+    private Player player(long id, String firstName, String lastName, boolean available) {
+        Player player = new Player(firstName, lastName, "defender");
+        player.setId(id);
+        player.setAvailable(available);
+        player.setClub(arsenal);
+        return player;
+    }
+}
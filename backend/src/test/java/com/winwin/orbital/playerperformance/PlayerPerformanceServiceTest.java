@@ -5,6 +5,10 @@ import com.winwin.orbital.player.Player;
 import com.winwin.orbital.scoringrule.ScoringRule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -64,5 +68,75 @@ public class PlayerPerformanceServiceTest {
         assertEquals(expectedPoints, points);
     }
 
+    @Test
+    public void testCalculatePointsInLeague_PackedMatchesPerPerformance() {
+        when(scoringRule.getFor60Mins()).thenReturn(1);
+        when(scoringRule.getForOver60Mins()).thenReturn(2);
+        when(scoringRule.getForGkDfGoal()).thenReturn(6);
+        when(scoringRule.getForMdGoal()).thenReturn(5);
+        when(scoringRule.getForFwGoal()).thenReturn(4);
+        when(scoringRule.getForAssist()).thenReturn(3);
+        when(scoringRule.getForGkDfCleanSheet()).thenReturn(4);
+        when(scoringRule.getForMdCleanSheet()).thenReturn(1);
+        when(scoringRule.getFor3GkSaves()).thenReturn(1);
+        when(scoringRule.getFor2GoalsConceded()).thenReturn(-1);
+        when(scoringRule.getForYellowCard()).thenReturn(1);
+        when(scoringRule.getForOwnGoal()).thenReturn(2);
+
+        League league = new League();
+        league.setScoringRule(scoringRule);
+
+        PlayerPerformance defender = performance("defender", 45, 1, 0, 1, 0, 4, 1, 0);
+        PlayerPerformance midfielder = performance("midfielder", 90, 2, 1, 1, 0, 3, 0, 0);
+        PlayerPerformance forward = performance("forward", 70, 1, 0, 1, 0, 0, 0, 1);
+        PlayerPerformance substitute = performance("goalkeeper", 0, 0, 0, 0, 7, 2, 0, 0);
+
+        // defender: 1 + 6 + 4 - 2 - 1; midfielder: 2 + 10 + 3 + 1; forward: 2 + 4 - 2; keeper: 2 saves buckets - 1
+        int[] expectedPoints = {8, 16, 4, 1};
+
+        List<PlayerPerformance> performances = List.of(defender, midfielder, forward, substitute);
+        for (int i = 0; i < performances.size(); i++) {
+            assertEquals(expectedPoints[i],
+                    playerPerformanceService.calculatePointsInLeague(performances.get(i), league));
+        }
+        assertArrayEquals(expectedPoints, playerPerformanceService.calculateAllPointsInLeague(
+                PerformanceStats.pack(performances), league));
+    }
+
+    @Test
+    public void testCalculatePointsInLeague_RecompilesAnEditedScoringRule() {
+        ScoringRule editedRule = new ScoringRule();
+        editedRule.setForOver60Mins(2);
+        League league = new League();
+        league.setId(1);
+        league.setScoringRule(editedRule);
+        PlayerPerformance forward = performance("forward", 90, 0, 0, 0, 0, 0, 0, 0);
+
+        assertEquals(2, playerPerformanceService.calculatePointsInLeague(forward, league));
+
+        editedRule.setForOver60Mins(3);
+        editedRule.setVersion(1);
+
+        assertEquals(3, playerPerformanceService.calculatePointsInLeague(forward, league));
+    }
+
+    private PlayerPerformance performance(String position, int minutesPlayed, int goalsScored, int assists,
+                                          int cleanSheet, int saves, int goalsConceded,
+                                          int yellowCards, int ownGoals) {
+        Player player = new Player();
+        player.setPosition(position);
+        PlayerPerformance performance = new PlayerPerformance();
+        performance.setPlayer(player);
+        performance.setMinutesPlayed(minutesPlayed);
+        performance.setGoalsScored(goalsScored);
+        performance.setAssists(assists);
+        performance.setCleanSheet(cleanSheet);
+        performance.setSaves(saves);
+        performance.setGoalsConceded(goalsConceded);
+        performance.setYellowCards(yellowCards);
+        performance.setOwnGoals(ownGoals);
+        return performance;
+    }
+
 }
 
@@ -0,0 +1,97 @@
+package com.winwin.orbital.powerupusage;
+
+import com.winwin.orbital.gameweek.GameweekComponent;
+import com.winwin.orbital.lineup.Lineup;
+import com.winwin.orbital.lineup.LineupRepository;
+import com.winwin.orbital.team.Team;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class PowerupUsageServiceTest {
+
+    private PowerupUsageRepository powerupUsageRepository;
+    private LineupRepository lineupRepository;
+    private GameweekComponent gameweekComponent;
+    private PowerupUsageService powerupUsageService;
+    private Team team;
+
+    @BeforeEach
+    public void setup() {
+        powerupUsageRepository = mock(PowerupUsageRepository.class);
+        lineupRepository = mock(LineupRepository.class);
+        gameweekComponent = mock(GameweekComponent.class);
+        powerupUsageService = new PowerupUsageService(powerupUsageRepository, lineupRepository, gameweekComponent,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 10);
+        team = new Team();
+        team.setId(1);
+
+        when(gameweekComponent.getCurrentSeason()).thenReturn("24/25");
+        when(powerupUsageRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    public void testLockThrough_CountsOnlyGameweeksAfterTheLastLockedOne() {
+        PowerupUsage usage = new PowerupUsage(team, "24/25");
+        usage.setLockedThroughGameweek(2);
+        usage.getUsed().put("bboost", 1);
+        when(powerupUsageRepository.findByTeamAndSeason(team, "24/25")).thenReturn(Optional.of(usage));
+        when(lineupRepository.findEffectiveByTeamAndSeasonBefore(team, "24/25", 5))
+                .thenReturn(List.of(lineup(2, "bboost"), lineup(3, "cx3"), lineup(4, "bboost")));
+
+        powerupUsageService.lockThrough(team, "24/25", 4);
+
+        assertEquals(Map.of("bboost", 2, "cx3", 1), usage.getUsed());
+        assertEquals(4, usage.getLockedThroughGameweek());
+    }
+
+    @Test
+    public void testGetUsedPowerups_IsCachedUntilTheGameweekChanges() {
+        when(gameweekComponent.getCurrentGameweek()).thenReturn(3);
+        when(powerupUsageRepository.findByTeamAndSeason(team, "24/25")).thenReturn(Optional.empty());
+        when(lineupRepository.findEffectiveByTeamAndSeasonBefore(team, "24/25", 3))
+                .thenReturn(List.of(lineup(1, "cx3"), lineup(2, null)));
+
+        assertEquals(Map.of("cx3", 1), powerupUsageService.getUsedPowerups(team));
+        assertEquals(Map.of("cx3", 1), powerupUsageService.getUsedPowerups(team));
+        verify(powerupUsageRepository, times(1)).findByTeamAndSeason(team, "24/25");
+
+        when(gameweekComponent.getCurrentGameweek()).thenReturn(4);
+        powerupUsageService.getUsedPowerups(team);
+        verify(powerupUsageRepository, times(2)).findByTeamAndSeason(team, "24/25");
+    }
+
+    @Test
+    public void testGetUsedPowerups_ReadsBackCountersSavedByAConcurrentRequest() {
+        when(gameweekComponent.getCurrentGameweek()).thenReturn(3);
+        PowerupUsage savedByOtherRequest = new PowerupUsage(team, "24/25");
+        savedByOtherRequest.setLockedThroughGameweek(2);
+        savedByOtherRequest.getUsed().put("cx3", 1);
+        when(powerupUsageRepository.findByTeamAndSeason(team, "24/25"))
+                .thenReturn(Optional.empty(), Optional.of(savedByOtherRequest));
+        when(lineupRepository.findEffectiveByTeamAndSeasonBefore(team, "24/25", 3))
+                .thenReturn(List.of(lineup(1, "cx3")));
+        when(powerupUsageRepository.save(any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key (team_id, season)"));
+
+        assertEquals(Map.of("cx3", 1), powerupUsageService.getUsedPowerups(team));
+        verify(powerupUsageRepository, times(1)).save(any());
+    }
+
+    private Lineup lineup(int gameweek, String powerup) {
+        Lineup lineup = new Lineup();
+        lineup.setGameweek(gameweek);
+        lineup.setPowerup(powerup);
+        return lineup;
+    }
+}
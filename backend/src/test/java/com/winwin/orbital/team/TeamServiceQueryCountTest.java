@@ -0,0 +1,92 @@
+package com.winwin.orbital.team;
+
+import com.winwin.orbital.gameweek.GameweekRollover;
+import com.winwin.orbital.league.League;
+import com.winwin.orbital.league.LeagueRepository;
+import com.winwin.orbital.lineup.PastLineupDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Loads the team data page of the seeded league against an in-memory database, once its gameweeks are rolled
+ * over, and counts the statements it runs.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:team-data;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "gameweek.rollover.check-interval-ms=3600000",
+        "jwt.secret=c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0",
+        "jwt.expiration=3600000",
+        "jwt.header=Authorization",
+        "frontend.url=http://localhost"
+})
+public class TeamServiceQueryCountTest {
+
+    @Autowired
+    private GameweekRollover gameweekRollover;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private LeagueRepository leagueRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void testAllTeamsDataRunsABoundedNumberOfQueries() {
+        League league = leagueRepository.findByCode("XXXXXXXX").orElseThrow();
+        UserDetails userDetails = User.withUsername("userA").password("").roles("USER").build();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        gameweekRollover.rollOverEndedGameweeks();
+        statistics.clear();
+        List<TeamDataDto> teamsData = teamService.getAllTeamsData(league.getId(), userDetails);
+        long queries = statistics.getPrepareStatementCount();
+
+        assertEquals(2, teamsData.size());
+        for (TeamDataDto teamData : teamsData) {
+            assertEquals(96, teamData.getPoints());
+            assertEquals(4, teamData.getPastLineups().size());
+            assertEquals(15, teamData.getCurrentPlayers().size());
+        }
+        assertTrue(queries <= 8, "getAllTeamsData ran " + queries + " queries");
+    }
+
+    @Test
+    public void testPastLineupPagesMatchTheTeamData() {
+        League league = leagueRepository.findByCode("XXXXXXXX").orElseThrow();
+        UserDetails userDetails = User.withUsername("userA").password("").roles("USER").build();
+        gameweekRollover.rollOverEndedGameweeks();
+        TeamDataDto teamData = teamService.getAllTeamsData(league.getId(), userDetails).get(0);
+
+        PastLineupPageDto firstPage = teamService.getPastLineups(teamData.getId(), 0, 3, userDetails);
+        PastLineupPageDto secondPage = teamService.getPastLineups(teamData.getId(), firstPage.getNextSinceGameweek(), 3, userDetails);
+        PastLineupPageDto nothingNew = teamService.getPastLineups(teamData.getId(), secondPage.getNextSinceGameweek(), 3, userDetails);
+
+        assertEquals(3, firstPage.getPastLineups().size());
+        assertTrue(firstPage.isHasMore());
+        assertEquals(1, secondPage.getPastLineups().size());
+        assertFalse(secondPage.isHasMore());
+        assertEquals(4, nothingNew.getNextSinceGameweek());
+        assertTrue(nothingNew.getPastLineups().isEmpty());
+
+        List<PastLineupDto> pages = new ArrayList<>(firstPage.getPastLineups());
+        pages.addAll(secondPage.getPastLineups());
+        assertEquals(teamData.getPastLineups(), pages);
+    }
+}
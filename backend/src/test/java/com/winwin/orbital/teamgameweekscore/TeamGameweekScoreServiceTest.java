@@ -0,0 +1,143 @@
+package com.winwin.orbital.teamgameweekscore;
+
+import com.winwin.orbital.gameweek.GameweekComponent;
+import com.winwin.orbital.league.League;
+import com.winwin.orbital.lineup.LineupService;
+import com.winwin.orbital.playerperformance.GameweekPerformanceStamp;
+import com.winwin.orbital.playerperformance.PlayerPerformanceRepository;
+import com.winwin.orbital.scoringrule.ScoringRule;
+import com.winwin.orbital.team.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TeamGameweekScoreServiceTest {
+
+    @Mock
+    private TeamGameweekScoreRepository teamGameweekScoreRepository;
+
+    @Mock
+    private PlayerPerformanceRepository playerPerformanceRepository;
+
+    @Mock
+    private LineupService lineupService;
+
+    @Mock
+    private GameweekComponent gameweekComponent;
+
+    @InjectMocks
+    private TeamGameweekScoreService teamGameweekScoreService;
+
+    private Team team;
+    private ScoringRule scoringRule;
+    private final LocalDateTime performanceUpdatedAt = LocalDateTime.of(2024, 8, 20, 12, 0);
+
+    @BeforeEach
+    public void setup() {
+        scoringRule = new ScoringRule();
+        League league = new League();
+        league.setScoringRule(scoringRule);
+        team = new Team();
+        team.setId(1L);
+        team.setLeague(league);
+    }
+
+    @Test
+    public void testGetSeasonPoints_SumsStoredScoresOfFinishedGameweeks() {
+        when(gameweekComponent.getCurrentGameweek()).thenReturn(3);
+        when(gameweekComponent.getCurrentSeason()).thenReturn("24/25");
+        when(teamGameweekScoreRepository.findByTeamAndSeason(team, "24/25"))
+                .thenReturn(List.of(storedScore(1, 10), storedScore(2, 7), storedScore(3, 4)));
+
+        int points = teamGameweekScoreService.getSeasonPoints(team);
+
+        assertEquals(17, points);
+        verifyNoInteractions(lineupService, playerPerformanceRepository);
+        verify(teamGameweekScoreRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void testGetSeasonPoints_ServesStaleScoresUntilTheyAreRescored() {
+        when(gameweekComponent.getCurrentGameweek()).thenReturn(3);
+        when(gameweekComponent.getCurrentSeason()).thenReturn("24/25");
+        TeamGameweekScore staleScore = storedScore(2, 7);
+        staleScore.setPerformanceCount(14);
+        when(teamGameweekScoreRepository.findByTeamAndSeason(team, "24/25"))
+                .thenReturn(List.of(storedScore(1, 10), staleScore));
+        scoringRule.setVersion(1);
+
+        int points = teamGameweekScoreService.getSeasonPoints(team);
+
+        assertEquals(17, points);
+        verifyNoInteractions(lineupService, playerPerformanceRepository);
+        verify(teamGameweekScoreRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void testGetGameweekResults_ReadsOnlyGameweeksAfterSince() {
+        when(gameweekComponent.getCurrentGameweek()).thenReturn(4);
+        when(gameweekComponent.getCurrentSeason()).thenReturn("24/25");
+        TeamGameweekScore gameweek2 = storedScore(2, 7);
+        TeamGameweekScore gameweek3 = storedScore(3, 4);
+        when(teamGameweekScoreRepository.findWithResultsByTeamAndSeasonBetween(team, "24/25", 1, 4))
+                .thenReturn(List.of(gameweek3, gameweek2));
+
+        List<TeamGameweekScore> scores = teamGameweekScoreService.getGameweekResults(team, 1, 10);
+
+        assertEquals(List.of(gameweek2, gameweek3), scores);
+        verifyNoInteractions(lineupService, playerPerformanceRepository);
+    }
+
+    @Test
+    public void testFindStaleGameweeks_FindsChangedPerformancesAndMissingTeams() {
+        TeamGameweekScore staleScore = storedScore(2, 7);
+        staleScore.setPerformanceCount(14);
+        when(teamGameweekScoreRepository.findBySeason("24/25"))
+                .thenReturn(List.of(storedScore(1, 10), staleScore));
+        when(playerPerformanceRepository.findGameweekStampsBySeason("24/25"))
+                .thenReturn(List.copyOf(stamps().values()));
+
+        assertEquals(Set.of(2, 3), teamGameweekScoreService.findStaleGameweeks(List.of(team), "24/25", List.of(1, 2, 3)));
+    }
+
+    @Test
+    public void testFindStaleGameweeks_FindsEveryGameweekAfterScoringRuleChange() {
+        when(teamGameweekScoreRepository.findBySeason("24/25"))
+                .thenReturn(List.of(storedScore(1, 10), storedScore(2, 7)));
+        when(playerPerformanceRepository.findGameweekStampsBySeason("24/25"))
+                .thenReturn(List.copyOf(stamps().values()));
+
+        assertEquals(Set.of(), teamGameweekScoreService.findStaleGameweeks(List.of(team), "24/25", List.of(1, 2)));
+        scoringRule.setVersion(1);
+        assertEquals(Set.of(1, 2), teamGameweekScoreService.findStaleGameweeks(List.of(team), "24/25", List.of(1, 2)));
+    }
+
+    private Map<Integer, GameweekPerformanceStamp> stamps() {
+        return Map.of(
+                1, new GameweekPerformanceStamp(1, 15L, performanceUpdatedAt),
+                2, new GameweekPerformanceStamp(2, 15L, performanceUpdatedAt));
+    }
+
+    private TeamGameweekScore storedScore(int gameweek, int points) {
+        TeamGameweekScore score = new TeamGameweekScore(team, gameweek, "24/25");
+        score.setPoints(points);
+        score.setScoringRuleVersion(0);
+        score.setPerformanceCount(15);
+        score.setPerformanceUpdatedAt(performanceUpdatedAt);
+        score.setComputedAt(performanceUpdatedAt);
+        return score;
+    }
+}
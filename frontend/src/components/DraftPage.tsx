@@ -36,6 +36,19 @@ interface ReceivedData {
     draftPool: PlayerDto[];
     lastPickMessage: string;
     remainingTime: number;
+    sequence: number;
+}
+
+interface DraftEvent {
+    sequence: number;
+    type: 'TURN' | 'PICK';
+    pickedBy: ManagerDto | null;
+    player: PlayerDto | null;
+    currentManager: ManagerDto;
+    nextManager: ManagerDto;
+    lastPickMessage: string;
+    remainingTime: number;
+    draftComplete: boolean;
 }
 
 interface Option {
@@ -55,6 +68,9 @@ const smallTextStyle = {
     fontSize: '13px',
 };
 
+// The broker may drop a snapshot reply under load, so a request left unanswered this long is sent again
+const SNAPSHOT_REQUEST_TIMEOUT_MS = 5000;
+
 const DraftPage: React.FC = () => {
     const navigate = useNavigate();
     const { league_id } = useParams<{ league_id: string }>();
@@ -92,6 +108,9 @@ const DraftPage: React.FC = () => {
     const [draftCompleted, setDraftCompleted] = useState(false);
     const [draftStartTimeInput, setDraftStartTimeInput] = useState<string>('');
     const [turnDuration, setTurnDuration] = useState<number>(0);
+    const sequenceRef = useRef<number>(-1);
+    const snapshotRequestedRef = useRef<boolean>(false);
+    const snapshotRequestTimeoutRef = useRef<number | null>(null);
 
     useEffect(() => {
         if (!league_id) {
@@ -123,6 +142,7 @@ const DraftPage: React.FC = () => {
             if (timerRef.current !== null) {
                 clearInterval(timerRef.current);
             }
+            clearSnapshotRequest();
             stopTimer();
             if (clientRef.current && clientRef.current.active) {
                 clientRef.current.deactivate();
@@ -141,7 +161,31 @@ const DraftPage: React.FC = () => {
             },
         });
 
+        const requestDraftState = () => {
+            if (snapshotRequestedRef.current) {
+                return;
+            }
+            snapshotRequestedRef.current = true;
+            client.publish({
+                destination: '/app/getDraftState',
+                body: league_id,
+            });
+            snapshotRequestTimeoutRef.current = window.setTimeout(() => {
+                snapshotRequestTimeoutRef.current = null;
+                snapshotRequestedRef.current = false;
+                if (client.connected) {
+                    requestDraftState();
+                }
+            }, SNAPSHOT_REQUEST_TIMEOUT_MS);
+        };
+
         const handleDraftStateUpdate = (receivedData: ReceivedData) => {
+            clearSnapshotRequest();
+            if (receivedData.sequence < sequenceRef.current) {
+                return;
+            }
+            sequenceRef.current = receivedData.sequence;
+
             const selectedPlayersMap = new Map<ManagerDto, PlayerDto[]>();
 
             Object.keys(receivedData.selectedPlayers).forEach((key) => {
@@ -166,8 +210,44 @@ const DraftPage: React.FC = () => {
             };
 
             setDraftState(newDraftState);
+            pickPrePickedPlayerIfOnTurn(newDraftState.currentManager);
+        };
+
+        const handleDraftEvent = (draftEvent: DraftEvent) => {
+            if (sequenceRef.current < 0 || draftEvent.sequence <= sequenceRef.current) {
+                // Not joined yet or already part of the snapshot
+                return;
+            }
+            if (draftEvent.sequence !== sequenceRef.current + 1) {
+                // Missed an event, start again from a fresh snapshot
+                requestDraftState();
+                return;
+            }
+            sequenceRef.current = draftEvent.sequence;
+
+            setDraftState((prevState) => {
+                const selectedPlayers = new Map(prevState.selectedPlayers);
+                let draftPool = prevState.draftPool;
+                const { pickedBy, player } = draftEvent;
+                if (draftEvent.type === 'PICK' && pickedBy && player) {
+                    const manager = Array.from(selectedPlayers.keys()).find((key) => key.id === pickedBy.id) ?? pickedBy;
+                    selectedPlayers.set(manager, [...(selectedPlayers.get(manager) ?? []), player]);
+                    draftPool = draftPool.filter((poolPlayer) => poolPlayer.id !== player.id);
+                }
+                return {
+                    currentManager: draftEvent.currentManager,
+                    nextManager: draftEvent.nextManager,
+                    selectedPlayers: selectedPlayers,
+                    draftPool: draftPool,
+                    lastPickMessage: draftEvent.lastPickMessage,
+                    remainingTime: draftEvent.remainingTime,
+                };
+            });
+            pickPrePickedPlayerIfOnTurn(draftEvent.currentManager);
+        };
 
-            if (newDraftState.currentManager.username === username && prePickedPlayerRef.current) {
+        const pickPrePickedPlayerIfOnTurn = (currentManager: ManagerDto) => {
+            if (currentManager.username === username && prePickedPlayerRef.current) {
                 pickPlayer(prePickedPlayerRef.current.id);
                 prePickedPlayerRef.current = null;
             }
@@ -175,13 +255,19 @@ const DraftPage: React.FC = () => {
 
         client.onConnect = () => {
             client.subscribe(`/topic/draft/${league_id}`, (message) => {
-                const receivedData = JSON.parse(message.body);
+                const draftEvent = JSON.parse(message.body);
                 setCountdownActive(false);
-                handleDraftStateUpdate(receivedData);
+                if (sequenceRef.current < 0) {
+                    // The draft started while waiting for it, so there is no snapshot to apply events to yet
+                    requestDraftState();
+                }
+                handleDraftEvent(draftEvent);
             });
 
             client.subscribe(`/user/topic/draft/${league_id}/start`, (message) => {
                 const millisecondsToDraftStart = JSON.parse(message.body);
+                // No snapshot comes back before the draft starts; ask again once it does
+                clearSnapshotRequest();
                 startDraftCountdown(millisecondsToDraftStart);
             });
 
@@ -192,6 +278,7 @@ const DraftPage: React.FC = () => {
             });
 
             client.subscribe(`/topic/draft/${league_id}/complete`, () => {
+                clearSnapshotRequest();
                 stopTimer();
                 setDraftCompleted(true);
                 if (clientRef.current && clientRef.current.connected) {
@@ -199,10 +286,9 @@ const DraftPage: React.FC = () => {
                 }
             });
 
-            client.publish({
-                destination: '/app/getDraftState',
-                body: league_id,
-            });
+            sequenceRef.current = -1;
+            clearSnapshotRequest();
+            requestDraftState();
         };
 
         client.activate();
@@ -307,6 +393,14 @@ const DraftPage: React.FC = () => {
         timerRef.current = interval;
     };
 
+    const clearSnapshotRequest = () => {
+        snapshotRequestedRef.current = false;
+        if (snapshotRequestTimeoutRef.current !== null) {
+            clearTimeout(snapshotRequestTimeoutRef.current);
+            snapshotRequestTimeoutRef.current = null;
+        }
+    };
+
     const stopTimer = () => {
         setRemainingTime(0);
         if (timerRef.current !== null) {
@@ -61,29 +61,17 @@ const LeagueScoringRulePage: React.FC = () => {
 
                 axios.defaults.headers.common['Authorization'] = `Bearer ${token}`;
 
-                const scoringRulesResponse = await axios.get(`/api/league/scoring_rule/${league_id}`);
-                if (scoringRulesResponse.status !== 200) {
-                    setError('Failed to fetch league scoring rules');
-                    setLoading(false);
-                    return;
-                }
-                setScoringRules(scoringRulesResponse.data);
-
-                const powerupsResponse = await axios.get(`/api/league/powerups/${league_id}`);
-                if (powerupsResponse.status !== 200) {
-                    setError('Failed to fetch league powerups');
-                    setLoading(false);
-                    return;
-                }
-                setPowerups(powerupsResponse.data);
-
-                const response = await axios.get(`/api/league/max_players_same_club/${league_id}`);
+                const response = await axios.get(`/api/league/overview/${league_id}`, {
+                    params: { fields: 'scoringRule,powerUps,maxPlayersSameClub' }
+                });
                 if (response.status !== 200) {
                     setError('Failed to fetch league data');
                     setLoading(false);
                     return;
                 }
-                setMaxPlayersFromClub(response.data);
+                setScoringRules(response.data.scoringRule);
+                setPowerups(response.data.powerUps);
+                setMaxPlayersFromClub(response.data.maxPlayersSameClub);
 
                 setLoading(false);
 